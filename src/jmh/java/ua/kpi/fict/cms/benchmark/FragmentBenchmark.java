@@ -0,0 +1,127 @@
+package ua.kpi.fict.cms.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ua.kpi.fict.cms.html.HtmlFragments;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * String.format assembly which was used by PageServiceImpl against precompiled fragments,
+ * run with -prof gc to compare allocation rate
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FragmentBenchmark {
+
+    @Param({"10", "100"})
+    private int children;
+
+    private String[][] cards;
+
+    private String[][] rows;
+
+    @Setup
+    public void setUp() {
+        cards = new String[children][];
+        rows = new String[children][];
+        for (int i = 0; i < children; i++) {
+            cards[i] = new String[]{
+                    "https://example.com/images/" + i + ".png",
+                    "Сторінка " + i,
+                    "Короткий опис сторінки номер " + i,
+                    "page-" + i
+            };
+            rows[i] = new String[]{
+                    "", "page-" + i, Integer.toString(i), "Page " + i, "Сторінка", "GRID", "+", "+",
+                    "2020-03-01", "https://...", "Intro", "Опис", Integer.toString(i), "DEFAULT", "2020-03-02",
+                    "", "root", "Переглянути", "Редагувати", "Видалити"
+            };
+        }
+    }
+
+    @Benchmark
+    public String childCardsFormat() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("<div class=\"child-container child-container-%s\">", "grid"));
+        for (String[] card : cards) {
+            builder.append(String.format("<div class=\"child-reference %s\">", ""));
+            builder.append(String.format("<img class=\"img-small\" src=\"%s\" />", card[0]));
+            builder.append(String.format("<h3>%s</h3>", card[1]));
+            builder.append(String.format("<p>%s</p>", card[2]));
+            builder.append(String.format("<a class=\"custom-a\" href=\"%s\">%s</a>", card[3], "Відкрити"));
+            builder.append("</div>");
+        }
+        builder.append("</div>");
+        return builder.toString();
+    }
+
+    @Benchmark
+    public String childCardsFragments() {
+        StringBuilder builder = new StringBuilder(cards.length * (HtmlFragments.CHILD_CARD.getLiteralLength() + 256));
+        HtmlFragments.CHILD_CONTAINER_START.render(builder, "grid");
+        for (String[] card : cards) {
+            HtmlFragments.CHILD_CARD.render(builder, "", card[0], card[1], card[2], "", card[3], "Відкрити");
+        }
+        builder.append(HtmlFragments.CHILD_CONTAINER_END);
+        return builder.toString();
+    }
+
+    @Benchmark
+    public String tableRowsFormat() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("<tbody>");
+        for (String[] row : rows) {
+            StringBuilder rowBuilder = new StringBuilder();
+            rowBuilder.append("<tr>");
+            rowBuilder.append(formatCell(String.format("<a href=\"%s/admin/pages?parentCode=%s\">" +
+                    "         <button class=\"btn btn-success\">⟱</button>" +
+                    "     </a>", row[0], row[1])));
+            for (int i = 2; i < 17; i++) {
+                rowBuilder.append(formatCell(row[i]));
+            }
+            rowBuilder.append(formatCell(String.format("<a href=\"%s/admin/pages/%s\">" +
+                    "         <button class=\"btn btn-primary\">%s</button>" +
+                    "     </a>", row[0], row[1], row[17])));
+            rowBuilder.append(formatCell(String.format("<a href=\"%s/admin/pages/%s/edit\">" +
+                    "         <button class=\"btn btn-warning\">%s</button>" +
+                    "     </a>", row[0], row[1], row[18])));
+            rowBuilder.append(formatCell(String.format("<form action=\"%s/admin/pages/%s\" method=\"post\">" +
+                    "         <input name=\"_method\" type=\"hidden\" value=\"delete\" />" +
+                    "         <button class=\"btn btn-danger\">%s</button>" +
+                    "     </form>", row[0], row[1], row[19])));
+            rowBuilder.append("</tr>");
+            builder.append(rowBuilder.toString());
+        }
+        builder.append("</tbody>");
+        return builder.toString();
+    }
+
+    @Benchmark
+    public String tableRowsFragments() {
+        StringBuilder builder = new StringBuilder(rows.length * (HtmlFragments.ROW_WITH_CHILDREN.getLiteralLength() + 256));
+        builder.append("<tbody>");
+        for (String[] row : rows) {
+            HtmlFragments.ROW_WITH_CHILDREN.render(builder, (CharSequence[]) row);
+        }
+        builder.append("</tbody>");
+        return builder.toString();
+    }
+
+    private static String formatCell(String text) {
+        return String.format("<td class=\"text-center\"><span>%s</span></td>", text);
+    }
+}
@@ -0,0 +1,61 @@
+package ua.kpi.fict.cms.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import ua.kpi.fict.cms.entity.Page;
+import ua.kpi.fict.cms.entity.enums.Language;
+import ua.kpi.fict.cms.entity.enums.OrderType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * sorting children of one parent with order type comparators and building page links
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderingBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int fanOut;
+
+    @Param({"CREATION_DATE", "UPDATE_DATE", "DEFAULT"})
+    private OrderType orderType;
+
+    private List<Page> children;
+
+    @Setup
+    public void setUp() {
+        children = new SyntheticSite(fanOut, 1).getChildren(SyntheticSite.ROOT_CODE);
+    }
+
+    @Benchmark
+    public List<Page> sortChildren() {
+        List<Page> sortedChildren = new ArrayList<>(children);
+        sortedChildren.sort(orderType.getComparator());
+        return sortedChildren;
+    }
+
+    @Benchmark
+    public void childCodes(Blackhole blackhole) {
+        for (Page child : children) {
+            blackhole.consume(child.getCode(Language.UA));
+            blackhole.consume(child.getCode(Language.EN));
+        }
+    }
+}
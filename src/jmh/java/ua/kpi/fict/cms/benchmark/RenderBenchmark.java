@@ -0,0 +1,115 @@
+package ua.kpi.fict.cms.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ua.kpi.fict.cms.cache.PageDocument;
+import ua.kpi.fict.cms.dto.response.AdminPageSliceDto;
+import ua.kpi.fict.cms.dto.response.PageDto;
+import ua.kpi.fict.cms.entity.enums.Language;
+import ua.kpi.fict.cms.service.impl.PageServiceImpl;
+import ua.kpi.fict.cms.tree.PageNode;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * rendering of page with fan-out children and of admin table with fan-out rows,
+ * private builders are reached through method handles
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RenderBenchmark {
+
+    @Param({"10", "100"})
+    private int fanOut;
+
+    @Param({"2", "3"})
+    private int depth;
+
+    @Param({"UA", "EN"})
+    private Language language;
+
+    private SyntheticSite site;
+
+    private PageServiceImpl pageService;
+
+    private Set<String> renderedCodes;
+
+    private PageNode rootNode;
+
+    private String rootContent;
+
+    private AdminPageSliceDto slice;
+
+    private MethodHandle buildContent;
+
+    private MethodHandle buildIndexTable;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        site = new SyntheticSite(fanOut, depth);
+        pageService = site.getPageService();
+        renderedCodes = Set.of(SyntheticSite.ROOT_CODE);
+        rootNode = site.getTree().getPage(SyntheticSite.ROOT_CODE);
+        rootContent = site.getPage(SyntheticSite.ROOT_CODE).getContent(language);
+        slice = AdminPageSliceDto.builder()
+                .rows(site.getAdminRows(SyntheticSite.ROOT_CODE, fanOut))
+                .build();
+
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(PageServiceImpl.class, MethodHandles.lookup());
+        buildContent = lookup.findVirtual(PageServiceImpl.class, "buildContent",
+                MethodType.methodType(String.class, PageNode.class, String.class, Language.class));
+        buildIndexTable = lookup.findVirtual(PageServiceImpl.class, "buildIndexTable",
+                MethodType.methodType(String.class, AdminPageSliceDto.class, Language.class));
+    }
+
+    @Benchmark
+    public PageDto renderCached() {
+        return pageService.render(language, SyntheticSite.ROOT_CODE);
+    }
+
+    @Benchmark
+    public PageDto renderUncached() {
+        site.getRenderCache().evict(renderedCodes);
+        return pageService.render(language, SyntheticSite.ROOT_CODE);
+    }
+
+    @Benchmark
+    public PageDocument renderDocumentUncached() {
+        site.getRenderCache().evict(renderedCodes);
+        return pageService.renderDocument(language, SyntheticSite.ROOT_CODE);
+    }
+
+    @Benchmark
+    public void renderStreamed() throws IOException {
+        pageService.render(language, SyntheticSite.ROOT_CODE, Writer.nullWriter());
+    }
+
+    @Benchmark
+    public String childrenContainer() throws Throwable {
+        return (String) buildContent.invokeExact(pageService, rootNode, rootContent, language);
+    }
+
+    @Benchmark
+    public String indexTable() throws Throwable {
+        return (String) buildIndexTable.invokeExact(pageService, slice, language);
+    }
+}
@@ -0,0 +1,325 @@
+package ua.kpi.fict.cms.benchmark;
+
+import org.springframework.test.util.ReflectionTestUtils;
+import ua.kpi.fict.cms.cache.PageRenderCache;
+import ua.kpi.fict.cms.dto.response.AdminPageRowDto;
+import ua.kpi.fict.cms.dto.response.ChildCardDto;
+import ua.kpi.fict.cms.dto.response.PageDto;
+import ua.kpi.fict.cms.dto.response.SearchResultDto;
+import ua.kpi.fict.cms.entity.Page;
+import ua.kpi.fict.cms.entity.enums.ContainerType;
+import ua.kpi.fict.cms.entity.enums.Language;
+import ua.kpi.fict.cms.entity.enums.OrderType;
+import ua.kpi.fict.cms.repository.PageContentRepository;
+import ua.kpi.fict.cms.repository.PageRepository;
+import ua.kpi.fict.cms.service.PageOrderService;
+import ua.kpi.fict.cms.service.PageSearchService;
+import ua.kpi.fict.cms.service.PageTreeService;
+import ua.kpi.fict.cms.service.impl.PageServiceImpl;
+import ua.kpi.fict.cms.tree.PageNode;
+import ua.kpi.fict.cms.tree.PageTree;
+
+import java.lang.reflect.Proxy;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/*
+ * generated page tree of given fan-out and depth, with in-memory repository and page service over it,
+ * so benchmarks measure rendering and not the database
+ */
+public class SyntheticSite {
+
+    public static final String ROOT_CODE = "root";
+
+    private static final long DAY = 24 * 60 * 60 * 1000L;
+
+    private static final long START = Date.valueOf("2020-01-01").getTime();
+
+    private final Map<String, Page> pages = new HashMap<>();
+
+    private final Map<Long, Page> pagesById = new HashMap<>();
+
+    private final Map<String, List<Page>> children = new HashMap<>();
+
+    private final Map<String, List<ChildCardDto>> uaChildCards = new HashMap<>();
+
+    private final Map<String, List<ChildCardDto>> enChildCards = new HashMap<>();
+
+    private final PageTree tree;
+
+    private final PageRenderCache renderCache;
+
+    private final PageServiceImpl pageService;
+
+    public SyntheticSite(int fanOut, int depth) {
+        Random random = new Random(42);
+        String content = "<p>" + "Lorem ipsum dolor sit amet, consectetur adipiscing elit. ".repeat(16) + "</p>";
+
+        Page root = createPage(ROOT_CODE, null, 0, content, random);
+        Deque<Page> level = new ArrayDeque<>(List.of(root));
+        for (int currentDepth = 1; currentDepth <= depth; currentDepth++) {
+            Deque<Page> nextLevel = new ArrayDeque<>();
+            for (Page parent : level) {
+                for (int i = 0; i < fanOut; i++) {
+                    nextLevel.add(createPage(parent.getCode() + "-" + i, parent, currentDepth, content, random));
+                }
+            }
+            level = nextLevel;
+        }
+        level.forEach(leaf -> leaf.setContainerType(null));
+
+        for (Page page : pages.values()) {
+            OrderType orderType = OrderType.of(page.getOrderType());
+            List<Page> sortedChildren = children.getOrDefault(page.getCode(), new ArrayList<>());
+            sortedChildren.forEach(child -> child.setSortKey(orderType.getSortKey(child)));
+            sortedChildren.sort(orderType.getComparator());
+            uaChildCards.put(page.getCode(), toChildCards(sortedChildren, Language.UA));
+            enChildCards.put(page.getCode(), toChildCards(sortedChildren, Language.EN));
+        }
+
+        tree = PageTree.of(pages.values().stream().map(PageNode::of).collect(Collectors.toList()));
+        renderCache = new PageRenderCache(64L * 1024 * 1024, 64L * 1024 * 1024, 5000);
+        pageService = new PageServiceImpl(createRepository(), createContentRepository(), renderCache, new FixedTreeService(tree), new NoOrderService(),
+                new NoSearchService());
+        ReflectionTestUtils.setField(pageService, "defaultIndexPageSize", 50);
+        ReflectionTestUtils.setField(pageService, "streamingThreshold", Integer.MAX_VALUE);
+    }
+
+    public PageServiceImpl getPageService() {
+        return pageService;
+    }
+
+    public PageRenderCache getRenderCache() {
+        return renderCache;
+    }
+
+    public PageTree getTree() {
+        return tree;
+    }
+
+    public Page getPage(String code) {
+        return pages.get(code);
+    }
+
+    public List<Page> getChildren(String code) {
+        return children.getOrDefault(code, List.of());
+    }
+
+    public List<Page> getPages() {
+        return new ArrayList<>(pages.values());
+    }
+
+    public List<AdminPageRowDto> getAdminRows(String parentCode, int limit) {
+        return getChildren(parentCode).stream()
+                .limit(limit)
+                .map(this::toAdminRow)
+                .collect(Collectors.toList());
+    }
+
+    private Page createPage(String code, Page parent, int depth, String content, Random random) {
+        long created = START + random.nextInt(1000) * DAY;
+        Page page = Page.builder()
+                .code(code)
+                .id((long) pages.size() + 1)
+                .captionUa("Сторінка " + code)
+                .captionEn("Page " + code)
+                .introUa("Короткий опис сторінки " + code)
+                .introEn("Short description of page " + code)
+                .contentUa(content)
+                .contentEn(content)
+                .imageUrl("/img/" + code + ".png")
+                .creationDate(new Date(created))
+                .updateDate(new Date(created + random.nextInt(100) * DAY))
+                .lastModified(new Timestamp(created + random.nextInt(100) * DAY))
+                .orderNum(random.nextInt(10) == 0 ? null : random.nextInt(1000))
+                .orderType(OrderType.values()[depth % OrderType.values().length])
+                .containerType(depth % 2 == 0 ? ContainerType.GRID : ContainerType.LIST)
+                .parentPage(parent)
+                .childPages(new ArrayList<>())
+                .aliases(new ArrayList<>())
+                .build();
+        page.setPath((parent != null ? parent.getPath() : "/") + page.getId() + "/");
+        pages.put(code, page);
+        pagesById.put(page.getId(), page);
+        if (parent != null) {
+            children.computeIfAbsent(parent.getCode(), parentCode -> new ArrayList<>()).add(page);
+        }
+        return page;
+    }
+
+    private static List<ChildCardDto> toChildCards(List<Page> childPages, Language language) {
+        return childPages.stream()
+                .map(child -> new ChildCardDto(child.getCode(), child.getImageUrl(),
+                        child.getCaption(language), child.getIntro(language)))
+                .collect(Collectors.toList());
+    }
+
+    private AdminPageRowDto toAdminRow(Page page) {
+        AdminPageRowDto row = new AdminPageRowDto(page.getId(), page.getCode(), page.getCaptionEn(), page.getCaptionUa(),
+                page.getContainerType(), page.getContentEn().length(), page.getContentUa().length(),
+                page.getCreationDate(), page.getImageUrl(), page.getIntroEn(), page.getIntroUa(), page.getOrderNum(),
+                page.getOrderType(), page.getUpdateDate(), page.getSortKey(), page.getPopularity(), null,
+                page.getParentPage() != null ? page.getParentPage().getCode() : null);
+        row.setChildCount(getChildren(page.getCode()).size());
+        return row;
+    }
+
+    /*
+     * only queries used by rendering and admin index are answered
+     */
+    @SuppressWarnings("unchecked")
+    private PageRepository createRepository() {
+        return (PageRepository) Proxy.newProxyInstance(PageRepository.class.getClassLoader(),
+                new Class<?>[]{PageRepository.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "findByCode":
+                            return Optional.ofNullable(pages.get((String) args[0]));
+                        case "findChildCards":
+                            return args[1] == Language.UA
+                                    ? uaChildCards.getOrDefault((String) args[0], List.of())
+                                    : enChildCards.getOrDefault((String) args[0], List.of());
+                        case "findUaChildCards":
+                            return uaChildCards.getOrDefault((String) args[0], List.of());
+                        case "findEnChildCards":
+                            return enChildCards.getOrDefault((String) args[0], List.of());
+                        case "findAdminRows":
+                            return getAdminRows((String) args[0], (Integer) args[2]);
+                        case "findAdminRow":
+                            return Optional.ofNullable(pages.get((String) args[0])).map(this::toAdminRow);
+                        case "countChildrenByParentCodes":
+                            return ((Collection<String>) args[0]).stream()
+                                    .map(code -> new Object[]{code, (long) getChildren(code).size()})
+                                    .collect(Collectors.toList());
+                        case "findAllNodes":
+                            return new ArrayList<>(pages.values()).stream().map(PageNode::of).collect(Collectors.toList());
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "SyntheticPageRepository";
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    /*
+     * bodies of rendered pages only
+     */
+    private PageContentRepository createContentRepository() {
+        return (PageContentRepository) Proxy.newProxyInstance(PageContentRepository.class.getClassLoader(),
+                new Class<?>[]{PageContentRepository.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "findContent":
+                            return Optional.ofNullable(pagesById.get((Long) args[0]))
+                                    .map(page -> page.getContent((Language) args[1]));
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "SyntheticPageContentRepository";
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private static class FixedTreeService implements PageTreeService {
+
+        private final PageTree tree;
+
+        FixedTreeService(PageTree tree) {
+            this.tree = tree;
+        }
+
+        @Override
+        public PageTree getTree() {
+            return tree;
+        }
+
+        @Override
+        public void load() {
+        }
+
+        @Override
+        public void rebuild() {
+        }
+
+        @Override
+        public void writeSnapshot() {
+        }
+
+        @Override
+        public void putPage(PageNode node) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void putPages(Collection<PageNode> nodes) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void updatePages(Set<String> codes, UnaryOperator<PageNode> update) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void removePages(Set<String> codes) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static class NoOrderService implements PageOrderService {
+
+        @Override
+        public void reorderChildren(String parentCode, OrderType orderType) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void reconcile() {
+        }
+    }
+
+    private static class NoSearchService implements PageSearchService {
+
+        @Override
+        public SearchResultDto search(String query, Language language, Integer page, Integer size) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public PageDto renderResults(String query, Language language, Integer page) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void indexPage(Page page) {
+        }
+
+        @Override
+        public void removePages(Set<String> codes) {
+        }
+
+        @Override
+        public void rebuild() {
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package ua.kpi.fict.cms.cache;
+
+import lombok.Value;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/*
+ * whole rendered html document with its gzip encoding, compressed once when page is rendered
+ */
+@Value
+public class PageDocument {
+
+    byte[] body;
+
+    byte[] gzipBody;
+
+    public static PageDocument of(String html) {
+        byte[] body = html.getBytes(StandardCharsets.UTF_8);
+        return new PageDocument(body, gzip(body));
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new BestCompressionGzipOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static class BestCompressionGzipOutputStream extends GZIPOutputStream {
+
+        BestCompressionGzipOutputStream(ByteArrayOutputStream out) throws IOException {
+            super(out);
+            def.setLevel(Deflater.BEST_COMPRESSION);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package ua.kpi.fict.cms.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ua.kpi.fict.cms.dto.response.PageDto;
+import ua.kpi.fict.cms.entity.enums.Language;
+import ua.kpi.fict.cms.exception.RenderTimeoutException;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/*
+ * bounded caches of rendered pages (parts for templates and whole precompressed documents),
+ * weighed by the size of the produced html, hit and eviction statistics are published as cache metrics,
+ * concurrent misses of one page wait for a single render instead of running their own
+ */
+@Log4j2
+@Component
+public class PageRenderCache implements MeterBinder {
+
+    private static final int ENTRY_OVERHEAD = 64;
+
+    private final Cache<RenderKey, PageDto> cache;
+
+    private final Cache<RenderKey, PageDocument> documentCache;
+    /*
+     * bumped on every eviction, so renders that started before a write are not cached
+     */
+    private final AtomicLong generation = new AtomicLong();
+    /*
+     * renders running now, later misses of the same key wait for them
+     */
+    private final Map<RenderKey, CompletableFuture<PageDto>> renders = new ConcurrentHashMap<>();
+
+    private final Map<RenderKey, CompletableFuture<PageDocument>> documentRenders = new ConcurrentHashMap<>();
+
+    private final AtomicLong coalesced = new AtomicLong();
+    /*
+     * waiting request gives up after it, the render itself goes on and is cached for next ones
+     */
+    private final long waitTimeoutMillis;
+
+    public PageRenderCache(@Value("${cms.render-cache.max-weight}") long maxWeight,
+                           @Value("${cms.render-cache.document-max-weight}") long documentMaxWeight,
+                           @Value("${cms.render.wait-timeout-millis}") long waitTimeoutMillis) {
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher(PageRenderCache::weigh)
+                .recordStats()
+                .build();
+        this.documentCache = Caffeine.newBuilder()
+                .maximumWeight(documentMaxWeight)
+                .weigher(PageRenderCache::weighDocument)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "pageRender");
+        CaffeineCacheMetrics.monitor(registry, documentCache, "pageDocument");
+        FunctionCounter.builder("cms.render.coalesced", coalesced, AtomicLong::get)
+                .description("Cache misses served by a render started by another request")
+                .register(registry);
+    }
+
+    public PageDto get(Language language, String pageCode, Supplier<PageDto> renderer) {
+        return get(cache, renders, new RenderKey(language, pageCode), renderer);
+    }
+
+    public PageDocument getDocument(Language language, String pageCode, Supplier<PageDocument> renderer) {
+        return get(documentCache, documentRenders, new RenderKey(language, pageCode), renderer);
+    }
+
+    /*
+     * first miss renders and publishes the result or the failure to requests which came meanwhile
+     */
+    private <T> T get(Cache<RenderKey, T> cache,
+                      Map<RenderKey, CompletableFuture<T>> renders,
+                      RenderKey key,
+                      Supplier<T> renderer) {
+
+        T page = cache.getIfPresent(key);
+        if (page != null) {
+            return page;
+        }
+        CompletableFuture<T> render = new CompletableFuture<>();
+        CompletableFuture<T> running = renders.putIfAbsent(key, render);
+        if (running != null) {
+            coalesced.incrementAndGet();
+            return await(key, running);
+        }
+        try {
+            page = cache.getIfPresent(key);
+            if (page == null) {
+                long startGeneration = generation.get();
+                page = renderer.get();
+                cache.put(key, page);
+                if (generation.get() != startGeneration) {
+                    cache.invalidate(key);
+                }
+            }
+            render.complete(page);
+            return page;
+        } catch (RuntimeException | Error e) {
+            render.completeExceptionally(e);
+            throw e;
+        } finally {
+            renders.remove(key, render);
+        }
+    }
+
+    private <T> T await(RenderKey key, CompletableFuture<T> render) {
+        try {
+            return render.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Gave up waiting for render of {} page {}", key.getLanguage(), key.getCode());
+            throw new RenderTimeoutException(key.getLanguage(), key.getCode(), waitTimeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RenderTimeoutException(key.getLanguage(), key.getCode(), waitTimeoutMillis);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /*
+     * renders started before the write stay with requests already waiting for them, new requests start over
+     */
+    public void evict(Collection<String> pageCodes) {
+        generation.incrementAndGet();
+        for (String pageCode : pageCodes) {
+            for (Language language : Language.values()) {
+                RenderKey key = new RenderKey(language, pageCode);
+                cache.invalidate(key);
+                documentCache.invalidate(key);
+                renders.remove(key);
+                documentRenders.remove(key);
+            }
+        }
+        log.debug("Evicted rendered pages for codes : {}", pageCodes);
+    }
+
+    private static int weigh(RenderKey key, PageDto page) {
+        long chars = length(key.getCode())
+                + length(page.getMeta())
+                + length(page.getHeader())
+                + length(page.getSubheader())
+                + length(page.getTitle())
+                + length(page.getImageUrl())
+                + length(page.getContent())
+                + length(page.getFooter());
+        return (int) Math.min(Integer.MAX_VALUE, chars * Character.BYTES + ENTRY_OVERHEAD);
+    }
+
+    private static int weighDocument(RenderKey key, PageDocument document) {
+        long bytes = length(key.getCode()) * Character.BYTES
+                + document.getBody().length
+                + document.getGzipBody().length;
+        return (int) Math.min(Integer.MAX_VALUE, bytes + ENTRY_OVERHEAD);
+    }
+
+    private static int length(String text) {
+        return text != null ? text.length() : 0;
+    }
+}
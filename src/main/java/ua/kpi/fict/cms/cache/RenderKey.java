@@ -0,0 +1,12 @@
+package ua.kpi.fict.cms.cache;
+
+import lombok.Value;
+import ua.kpi.fict.cms.entity.enums.Language;
+
+@Value
+public class RenderKey {
+
+    Language language;
+
+    String code;
+}
@@ -1,17 +1,33 @@
 package ua.kpi.fict.cms.controller;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import ua.kpi.fict.cms.cache.PageDocument;
 import ua.kpi.fict.cms.dto.response.AdminPanelPageDto;
 import ua.kpi.fict.cms.dto.response.PageDto;
+import ua.kpi.fict.cms.dto.response.PageValidatorDto;
 import ua.kpi.fict.cms.entity.MessageType;
 import ua.kpi.fict.cms.entity.Page;
 import ua.kpi.fict.cms.entity.enums.Language;
+import ua.kpi.fict.cms.metrics.Utf8CountingWriter;
 import ua.kpi.fict.cms.service.PageService;
+import ua.kpi.fict.cms.service.PageViewService;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Locale;
 
 @RequiredArgsConstructor
@@ -22,21 +38,40 @@ public class PageController {
     private static final String ADMIN_PREFIX = "/admin";
     private static final String EN_PREFIX = "/en";
 
+    private static final String GZIP = "gzip";
+
+    private static final String IDENTITY = "identity";
+    /*
+     * timer of every page action, tagged by action and language on top of usual http request tags
+     */
+    private static final String REQUESTS_METRIC = "cms.page.requests";
+
     private final PageService pageService;
 
+    private final PageViewService pageViewService;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${cms.render.precompressed}")
+    private boolean precompressed;
+
     @GetMapping(value = ADMIN_PREFIX + "/pages")
+    @Timed(value = REQUESTS_METRIC, extraTags = {"action", "index", "language", "ua"}, histogram = true)
     public String indexUa(@RequestParam(value = "parentCode", required = false) String parentCode,
+                          @RequestParam(value = "cursor", required = false) String cursor,
+                          @RequestParam(value = "size", required = false) Integer size,
                           @RequestParam(value = "saved", required = false) boolean saved,
                           @RequestParam(value = "updated", required = false) boolean updated,
                           @RequestParam(value = "deleted", required = false) boolean deleted,
-                          Model model) {
+                          Model model,
+                          WebRequest webRequest) {
 
         log.info("Request to show ua pages list for parent code : {}", parentCode);
-        indexAction(parentCode, saved, updated, deleted, model, Language.UA);
-        return "admin/index";
+        return indexAction(parentCode, cursor, size, saved, updated, deleted, model, webRequest, Language.UA);
     }
 
     @GetMapping(value = ADMIN_PREFIX + "/pages/create")
+    @Timed(value = REQUESTS_METRIC, extraTags = {"action", "create", "language", "ua"}, histogram = true)
     public String createUa(@RequestParam(value = "parentCode", required = false) String parentCode,
                            @ModelAttribute("page") Page page,
                            Model model) {
@@ -47,6 +82,7 @@ public class PageController {
     }
 
     @PostMapping(value = ADMIN_PREFIX + "/pages")
+    @Timed(value = REQUESTS_METRIC, extraTags = {"action", "store", "language", "ua"}, histogram = true)
     public String storeUa(@RequestParam(value = "parentCode", required = false) String parentCode,
                           @ModelAttribute("page") Page page) {
 
@@ -56,12 +92,18 @@ public class PageController {
     }
 
     @GetMapping(value = ADMIN_PREFIX + "/pages/{pageCode}")
-    public String showUa(@PathVariable String pageCode, Model model) {
+    @Timed(value = REQUESTS_METRIC, extraTags = {"action", "show", "language", "ua"}, histogram = true)
+    public String showUa(@PathVariable String pageCode,
+                         Model model,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+
         log.info("Request to show ua page with code : {}", pageCode);
-        return getUaPage(pageCode, model);
+        return getUaPage(pageCode, model, request, response);
     }
 
     @GetMapping(value = ADMIN_PREFIX + "/pages/{pageCode}/edit")
+    @Timed(value = REQUESTS_METRIC, extraTags = {"action", "edit", "language", "ua"}, histogram = true)
     public String editUa(@PathVariable String pageCode,
                          Model model) {
 
@@ -71,6 +113,7 @@ public class PageController {
     }
 
     @PutMapping(value = ADMIN_PREFIX + "/pages/{pageCode}")
+    @Timed(value = REQUESTS_METRIC, extraTags = {"action", "update", "language", "ua"}, histogram = true)
     public String updateUa(@ModelAttribute("page") Page page) {
         log.info("Request to update ua page : {}", page);
         updateAction(page);
@@ -78,6 +121,7 @@ public class PageController {
     }
 
     @DeleteMapping(value = ADMIN_PREFIX + "/pages/{pageCode}")
+    @Timed(value = REQUESTS_METRIC, extraTags = {"action", "delete", "language", "ua"}, histogram = true)
     public String destroyUa(@PathVariable String pageCode) {
         log.debug("Request to delete ua page with code : {}", pageCode);
         Page page = destroyAction(pageCode);
@@ -104,16 +148,23 @@ public class PageController {
         model.addAttribute("footer", page.getFooter());
     }
 
-    private void indexAction(String parentCode,
-                             boolean saved,
-                             boolean updated,
-                             boolean deleted,
-                             Model model,
-                             Language language) {
-
+    private String indexAction(String parentCode,
+                               String cursor,
+                               Integer size,
+                               boolean saved,
+                               boolean updated,
+                               boolean deleted,
+                               Model model,
+                               WebRequest webRequest,
+                               Language language) {
+
+        if (webRequest.checkNotModified(pageService.getIndexValidator(language).getEtag())) {
+            return null;
+        }
         MessageType messageType = getMessageType(saved, updated, deleted);
-        AdminPanelPageDto page = pageService.getIndexPage(parentCode, language, messageType);
+        AdminPanelPageDto page = pageService.getIndexPage(parentCode, cursor, size, language, messageType);
         buildAdminPanelPageModel(page, model);
+        return "admin/index";
     }
 
     private void createAction(String parentCode,
@@ -135,7 +186,7 @@ public class PageController {
                             Model model,
                             Language language) {
 
-        Page page = pageService.findPageByCode(pageCode);
+        Page page = pageService.findPageWithContent(pageCode);
         AdminPanelPageDto headerFooter = pageService.getEditPage(language);
         model.addAttribute("page", page);
         model.addAttribute("header", headerFooter.getHeader());
@@ -153,18 +204,22 @@ public class PageController {
     }
 
     @GetMapping(value = EN_PREFIX + ADMIN_PREFIX + "/pages")
+    @Timed(value = REQUESTS_METRIC, extraTags = {"action", "index", "language", "en"}, histogram = true)
     public String indexEn(@RequestParam(value = "parentCode", required = false) String parentCode,
+                          @RequestParam(value = "cursor", required = false) String cursor,
+                          @RequestParam(value = "size", required = false) Integer size,
                           @RequestParam(value = "saved", required = false) boolean saved,
                           @RequestParam(value = "updated", required = false) boolean updated,
                           @RequestParam(value = "deleted", required = false) boolean deleted,
-                          Model model) {
+                          Model model,
+                          WebRequest webRequest) {
 
         log.info("Request to show en pages list for parent code : {}", parentCode);
-        indexAction(parentCode, saved, updated, deleted, model, Language.EN);
-        return "admin/index";
+        return indexAction(parentCode, cursor, size, saved, updated, deleted, model, webRequest, Language.EN);
     }
 
     @GetMapping(value = EN_PREFIX + ADMIN_PREFIX + "/pages/create")
+    @Timed(value = REQUESTS_METRIC, extraTags = {"action", "create", "language", "en"}, histogram = true)
     public String createEn(@RequestParam(value = "parentCode", required = false) String parentCode,
                            @ModelAttribute("page") Page page,
                            Model model) {
@@ -176,6 +231,7 @@ public class PageController {
     }
 
     @PostMapping(value = EN_PREFIX + ADMIN_PREFIX + "/pages")
+    @Timed(value = REQUESTS_METRIC, extraTags = {"action", "store", "language", "en"}, histogram = true)
     public String storeEn(@RequestParam(value = "parentCode", required = false) String parentCode,
                           @ModelAttribute("page") Page page) {
 
@@ -185,12 +241,18 @@ public class PageController {
     }
 
     @GetMapping(value = EN_PREFIX + ADMIN_PREFIX + "/pages/{pageCode}")
-    public String showEn(@PathVariable String pageCode, Model model) {
+    @Timed(value = REQUESTS_METRIC, extraTags = {"action", "show", "language", "en"}, histogram = true)
+    public String showEn(@PathVariable String pageCode,
+                         Model model,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+
         log.info("Request to show en page with code : {}", pageCode);
-        return getEnPage(pageCode, model);
+        return getEnPage(pageCode, model, request, response);
     }
 
     @GetMapping(value = EN_PREFIX + ADMIN_PREFIX + "/pages/{pageCode}/edit")
+    @Timed(value = REQUESTS_METRIC, extraTags = {"action", "edit", "language", "en"}, histogram = true)
     public String editEn(@PathVariable String pageCode,
                          Model model) {
 
@@ -201,6 +263,7 @@ public class PageController {
     }
 
     @PutMapping(value = EN_PREFIX + ADMIN_PREFIX + "/pages/{pageCode}")
+    @Timed(value = REQUESTS_METRIC, extraTags = {"action", "update", "language", "en"}, histogram = true)
     public String updateEn(@ModelAttribute("page") Page page) {
         log.info("Request to update en page : {}", page);
         updateAction(page);
@@ -208,6 +271,7 @@ public class PageController {
     }
 
     @DeleteMapping(value = EN_PREFIX + ADMIN_PREFIX + "/pages/{pageCode}")
+    @Timed(value = REQUESTS_METRIC, extraTags = {"action", "delete", "language", "en"}, histogram = true)
     public String destroyEn(@PathVariable String pageCode) {
         log.debug("Request to delete en page with code : {}", pageCode);
         Page page = destroyAction(pageCode);
@@ -215,30 +279,69 @@ public class PageController {
     }
 
     @GetMapping(value = "/{pageCode}")
-    public String getUaPage(@PathVariable String pageCode, Model model) {
+    @Timed(value = REQUESTS_METRIC, extraTags = {"action", "render", "language", "ua"}, histogram = true)
+    public String getUaPage(@PathVariable String pageCode,
+                            Model model,
+                            HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+
         log.info("handling ua request with pageCode: {}", pageCode);
         String purePageCode = pageService.purifyPageCode(pageCode);
         if (!purePageCode.equals(pageCode)) {
             log.info("redirecting from {} to {}", pageCode, purePageCode);
+            countRedirect(Language.UA);
             return "redirect:/" + purePageCode;
         }
-        buildPage(pageCode, Language.UA, model);
-        return "base_template";
+        return buildPage(pageCode, Language.UA, model, request, response);
     }
 
     @GetMapping(value = "/en/{pageCode}")
-    public String getEnPage(@PathVariable String pageCode, Model model) {
+    @Timed(value = REQUESTS_METRIC, extraTags = {"action", "render", "language", "en"}, histogram = true)
+    public String getEnPage(@PathVariable String pageCode,
+                            Model model,
+                            HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+
         log.info("handling en request with pageCode: {}", pageCode);
         String purePageCode = pageService.purifyPageCode(pageCode);
         if (!purePageCode.equals(pageCode)) {
             log.info("redirecting from {} to {}", pageCode, purePageCode);
+            countRedirect(Language.EN);
             return "redirect:/en/" + purePageCode;
         }
-        buildPage(pageCode, Language.EN, model);
-        return "base_template";
+        return buildPage(pageCode, Language.EN, model, request, response);
     }
 
-    private void buildPage(String pageCode, Language language, Model model) {
+    /*
+     * not modified and large pages are answered straight to response,
+     * null view tells mvc that response is already handled
+     */
+    private String buildPage(String pageCode,
+                             Language language,
+                             Model model,
+                             HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+
+        pageViewService.recordView(pageCode, language);
+        boolean streamed = pageService.isStreamed(pageCode);
+        boolean gzip = precompressed && !streamed && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        PageValidatorDto validator = pageService.getPageValidator(language, pageCode);
+        String etag = gzip ? withEncoding(validator.getEtag(), GZIP) : validator.getEtag();
+        if (new ServletWebRequest(request, response).checkNotModified(etag, validator.getLastModified())) {
+            return null;
+        }
+        if (streamed) {
+            response.setContentType(MediaType.TEXT_HTML_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            Utf8CountingWriter writer = new Utf8CountingWriter(response.getWriter());
+            pageService.render(language, pageCode, writer);
+            recordPayload(language, IDENTITY, writer.getByteCount());
+            return null;
+        }
+        if (precompressed) {
+            writeDocument(pageService.renderDocument(language, pageCode), language, gzip, response);
+            return null;
+        }
         PageDto page = pageService.render(language, pageCode);
         model.addAttribute("language", language);
         model.addAttribute("meta", page.getMeta());
@@ -248,18 +351,86 @@ public class PageController {
         model.addAttribute("imageUrl", page.getImageUrl());
         model.addAttribute("content", page.getContent());
         model.addAttribute("footer", page.getFooter());
+        return "base_template";
+    }
+
+    /*
+     * stored bytes are written as they are, encoding is not applied again by the server
+     */
+    private void writeDocument(PageDocument document,
+                               Language language,
+                               boolean gzip,
+                               HttpServletResponse response) throws IOException {
+        byte[] body = gzip ? document.getGzipBody() : document.getBody();
+        response.setContentType(MediaType.TEXT_HTML_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+        recordPayload(language, gzip ? GZIP : IDENTITY, body.length);
+    }
+
+    private void countRedirect(Language language) {
+        meterRegistry.counter("cms.page.redirects", "language", language.name().toLowerCase(Locale.ROOT)).increment();
+    }
+
+    /*
+     * size of page body as produced by the application, before compression applied by the server
+     */
+    private void recordPayload(Language language, String encoding, long bytes) {
+        DistributionSummary.builder("cms.page.payload")
+                .description("Size of rendered page bodies")
+                .baseUnit("bytes")
+                .tag("language", language.name().toLowerCase(Locale.ROOT))
+                .tag("encoding", encoding)
+                .register(meterRegistry)
+                .record(bytes);
+    }
+
+    /*
+     * gzip listed in header without zero quality, "*" is not taken as gzip
+     */
+    private boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase(GZIP)) {
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    /*
+     * each encoding is a separate representation, so it has its own entity tag
+     */
+    private String withEncoding(String etag, String encoding) {
+        return etag.substring(0, etag.length() - 1) + "-" + encoding + "\"";
     }
 
     @GetMapping(value = "/en")
-    public String getEnRootPage(Model model) {
+    @Timed(value = REQUESTS_METRIC, extraTags = {"action", "render", "language", "en"}, histogram = true)
+    public String getEnRootPage(Model model,
+                                HttpServletRequest request,
+                                HttpServletResponse response) throws IOException {
+
         log.info("handling en root page request");
-        return getEnPage("root", model);
+        return getEnPage("root", model, request, response);
     }
 
     @GetMapping
-    public String getUaRootPage(Model model) {
+    @Timed(value = REQUESTS_METRIC, extraTags = {"action", "render", "language", "ua"}, histogram = true)
+    public String getUaRootPage(Model model,
+                                HttpServletRequest request,
+                                HttpServletResponse response) throws IOException {
+
         log.info("handling ua root page request");
-        return getUaPage("root", model);
+        return getUaPage("root", model, request, response);
     }
 
     @GetMapping(value = "favicon.ico")
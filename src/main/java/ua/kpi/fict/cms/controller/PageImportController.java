@@ -0,0 +1,36 @@
+package ua.kpi.fict.cms.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import ua.kpi.fict.cms.dto.response.PageImportDto;
+import ua.kpi.fict.cms.imports.PageImportFormat;
+import ua.kpi.fict.cms.service.PageImportService;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+
+@RequiredArgsConstructor
+@Log4j2
+@Controller
+public class PageImportController {
+
+    private static final String ADMIN_PREFIX = "/admin";
+
+    private final PageImportService pageImportService;
+
+    /*
+     * body is read as a stream, json object per line or csv with header
+     */
+    @PostMapping(value = ADMIN_PREFIX + "/import",
+            consumes = {PageImportFormat.NDJSON_VALUE, PageImportFormat.CSV_VALUE})
+    @ResponseBody
+    public PageImportDto importPages(HttpServletRequest request) throws IOException {
+        PageImportFormat format = PageImportFormat.of(MediaType.parseMediaType(request.getContentType()));
+        log.info("Request to import pages from {}", format);
+        return pageImportService.importPages(request.getInputStream(), format);
+    }
+}
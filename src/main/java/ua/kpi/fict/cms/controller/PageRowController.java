@@ -0,0 +1,37 @@
+package ua.kpi.fict.cms.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import ua.kpi.fict.cms.service.PageRowService;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/*
+ * rows of admin listing for tables rendered in browser, same parameters as "/admin/pages",
+ * body is written straight to response
+ */
+@RequiredArgsConstructor
+@Log4j2
+@Controller
+public class PageRowController {
+
+    private static final String ADMIN_PREFIX = "/admin";
+
+    private final PageRowService pageRowService;
+
+    @GetMapping(value = ADMIN_PREFIX + "/api/pages")
+    public void findRows(@RequestParam(value = "parentCode", required = false) String parentCode,
+                         @RequestParam(value = "cursor", required = false) String cursor,
+                         @RequestParam(value = "size", required = false) Integer size,
+                         HttpServletResponse response) throws IOException {
+
+        log.info("Request to get page rows for parent code : {}", parentCode);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        pageRowService.writeRows(parentCode, cursor, size, response.getOutputStream());
+    }
+}
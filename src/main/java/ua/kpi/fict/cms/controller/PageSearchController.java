@@ -0,0 +1,75 @@
+package ua.kpi.fict.cms.controller;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import ua.kpi.fict.cms.dto.response.PageDto;
+import ua.kpi.fict.cms.dto.response.SearchResultDto;
+import ua.kpi.fict.cms.entity.enums.Language;
+import ua.kpi.fict.cms.service.PageSearchService;
+
+/*
+ * full text search over captions, intros and contents of pages, literal "/search" takes precedence
+ * over "/{pageCode}", so "search" is one of reserved page codes
+ */
+@RequiredArgsConstructor
+@Log4j2
+@Controller
+public class PageSearchController {
+
+    private static final String ADMIN_PREFIX = "/admin";
+    private static final String EN_PREFIX = "/en";
+
+    private static final String REQUESTS_METRIC = "cms.page.requests";
+
+    private final PageSearchService pageSearchService;
+
+    @GetMapping(value = "/search")
+    @Timed(value = REQUESTS_METRIC, extraTags = {"action", "search", "language", "ua"}, histogram = true)
+    public String searchUa(@RequestParam(value = "q", required = false) String query,
+                           @RequestParam(value = "page", required = false) Integer page,
+                           Model model) {
+
+        log.info("Request to search ua pages : {}", query);
+        return searchAction(query, page, model, Language.UA);
+    }
+
+    @GetMapping(value = EN_PREFIX + "/search")
+    @Timed(value = REQUESTS_METRIC, extraTags = {"action", "search", "language", "en"}, histogram = true)
+    public String searchEn(@RequestParam(value = "q", required = false) String query,
+                           @RequestParam(value = "page", required = false) Integer page,
+                           Model model) {
+
+        log.info("Request to search en pages : {}", query);
+        return searchAction(query, page, model, Language.EN);
+    }
+
+    @GetMapping(value = ADMIN_PREFIX + "/search")
+    @ResponseBody
+    public SearchResultDto search(@RequestParam(value = "q") String query,
+                                  @RequestParam(value = "language", required = false) Language language,
+                                  @RequestParam(value = "page", required = false) Integer page,
+                                  @RequestParam(value = "size", required = false) Integer size) {
+
+        log.info("Request to search pages : {}, language : {}", query, language);
+        return pageSearchService.search(query, language != null ? language : Language.UA, page, size);
+    }
+
+    private String searchAction(String query, Integer page, Model model, Language language) {
+        PageDto result = pageSearchService.renderResults(query, language, page);
+        model.addAttribute("language", language);
+        model.addAttribute("meta", result.getMeta());
+        model.addAttribute("header", result.getHeader());
+        model.addAttribute("subheader", result.getSubheader());
+        model.addAttribute("title", result.getTitle());
+        model.addAttribute("imageUrl", result.getImageUrl());
+        model.addAttribute("content", result.getContent());
+        model.addAttribute("footer", result.getFooter());
+        return "base_template";
+    }
+}
@@ -0,0 +1,64 @@
+package ua.kpi.fict.cms.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import ua.kpi.fict.cms.dto.response.PageDeleteDto;
+import ua.kpi.fict.cms.dto.response.PageMoveDto;
+import ua.kpi.fict.cms.service.PageService;
+
+/*
+ * operations on page together with everything below it
+ */
+@RequiredArgsConstructor
+@Log4j2
+@Controller
+public class PageSubtreeController {
+
+    private static final String ADMIN_PREFIX = "/admin";
+    private static final String EN_PREFIX = "/en";
+
+    private final PageService pageService;
+
+    @DeleteMapping(value = ADMIN_PREFIX + "/pages/{pageCode}/subtree")
+    @ResponseBody
+    public PageDeleteDto deleteSubtree(@PathVariable String pageCode,
+                                       @RequestParam(value = "dryRun", required = false) boolean dryRun) {
+
+        log.info("Request to delete subtree of page {}, dry run : {}", pageCode, dryRun);
+        return pageService.deleteSubtree(pageCode, dryRun);
+    }
+
+    @PutMapping(value = ADMIN_PREFIX + "/pages/{pageCode}/parent")
+    @ResponseBody
+    public PageMoveDto movePage(@PathVariable String pageCode,
+                                @RequestParam(value = "parentCode") String parentCode) {
+
+        log.info("Request to move page {} under {}", pageCode, parentCode);
+        return pageService.movePage(pageCode, parentCode);
+    }
+
+    @PostMapping(value = ADMIN_PREFIX + "/pages/{pageCode}/move")
+    public String moveUa(@PathVariable String pageCode,
+                         @RequestParam(value = "parentCode") String parentCode) {
+
+        log.info("Request to move ua page {} under {}", pageCode, parentCode);
+        pageService.movePage(pageCode, parentCode);
+        return "redirect:/admin/pages?updated=true&parentCode=" + parentCode;
+    }
+
+    @PostMapping(value = EN_PREFIX + ADMIN_PREFIX + "/pages/{pageCode}/move")
+    public String moveEn(@PathVariable String pageCode,
+                         @RequestParam(value = "parentCode") String parentCode) {
+
+        log.info("Request to move en page {} under {}", pageCode, parentCode);
+        pageService.movePage(pageCode, parentCode);
+        return "redirect:/en/admin/pages?updated=true&parentCode=" + parentCode;
+    }
+}
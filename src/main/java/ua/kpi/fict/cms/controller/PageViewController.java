@@ -0,0 +1,32 @@
+package ua.kpi.fict.cms.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import ua.kpi.fict.cms.dto.response.PageViewDto;
+import ua.kpi.fict.cms.service.PageViewService;
+
+import java.util.List;
+
+/*
+ * most viewed pages of recent days, as of last flush of view counters
+ */
+@RequiredArgsConstructor
+@Log4j2
+@Controller
+public class PageViewController {
+
+    private static final String ADMIN_PREFIX = "/admin";
+
+    private final PageViewService pageViewService;
+
+    @GetMapping(value = ADMIN_PREFIX + "/views/popular")
+    @ResponseBody
+    public List<PageViewDto> findPopularPages(@RequestParam(value = "limit", required = false) Integer limit) {
+        log.info("Request to show popular pages, limit : {}", limit);
+        return pageViewService.findPopularPages(limit);
+    }
+}
@@ -0,0 +1,27 @@
+package ua.kpi.fict.cms.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import ua.kpi.fict.cms.dto.response.SiteExportDto;
+import ua.kpi.fict.cms.service.SiteExportService;
+
+@RequiredArgsConstructor
+@Log4j2
+@Controller
+public class SiteExportController {
+
+    private static final String ADMIN_PREFIX = "/admin";
+
+    private final SiteExportService siteExportService;
+
+    @PostMapping(value = ADMIN_PREFIX + "/export")
+    @ResponseBody
+    public SiteExportDto export(@RequestParam(value = "force", required = false) boolean force) {
+        log.info("Request to export site, force : {}", force);
+        return siteExportService.export(force);
+    }
+}
@@ -0,0 +1,49 @@
+package ua.kpi.fict.cms.dto.request;
+
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/*
+ * keyset position in children list : sort key and id of the last (or first, when going backward) shown page
+ */
+@Value
+public class PageCursor {
+
+    private static final String SEPARATOR = "~";
+
+    boolean backward;
+
+    long key;
+
+    long id;
+
+    public static PageCursor after(long key, long id) {
+        return new PageCursor(false, key, id);
+    }
+
+    public static PageCursor before(long key, long id) {
+        return new PageCursor(true, key, id);
+    }
+
+    /*
+     * null for missing or malformed cursor, so listing starts from the first page
+     */
+    public static PageCursor decode(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8).split(SEPARATOR);
+            return new PageCursor("b".equals(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    public String encode() {
+        String value = (backward ? "b" : "a") + SEPARATOR + key + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
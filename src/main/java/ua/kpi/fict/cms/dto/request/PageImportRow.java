@@ -0,0 +1,48 @@
+package ua.kpi.fict.cms.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.*;
+import ua.kpi.fict.cms.entity.enums.ContainerType;
+import ua.kpi.fict.cms.entity.enums.OrderType;
+
+/*
+ * one page definition of bulk import, parent and alias are given by code and may come later in the stream
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PageImportRow {
+    /*
+     * line of the stream where definition starts, for error report
+     */
+    @JsonIgnore
+    private int line;
+
+    private String code;
+
+    private String parentCode;
+
+    private String aliasOf;
+
+    private String captionUa;
+
+    private String captionEn;
+
+    private String introUa;
+
+    private String introEn;
+
+    private String contentUa;
+
+    private String contentEn;
+
+    private String imageUrl;
+
+    private Integer orderNum;
+
+    private OrderType orderType;
+
+    private ContainerType containerType;
+}
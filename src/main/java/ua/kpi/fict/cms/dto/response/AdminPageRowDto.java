@@ -0,0 +1,80 @@
+package ua.kpi.fict.cms.dto.response;
+
+import lombok.*;
+import ua.kpi.fict.cms.entity.Sortable;
+import ua.kpi.fict.cms.entity.enums.ContainerType;
+import ua.kpi.fict.cms.entity.enums.OrderType;
+
+import java.util.Date;
+
+/*
+ * fields shown in admin panel table row, content itself is not loaded
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class AdminPageRowDto implements Sortable {
+
+    private Long id;
+
+    private String code;
+
+    private String captionEn;
+
+    private String captionUa;
+
+    private ContainerType containerType;
+
+    private boolean contentEnPresent;
+
+    private boolean contentUaPresent;
+
+    private Date creationDate;
+
+    private String imageUrl;
+
+    private String introEn;
+
+    private String introUa;
+
+    private Integer orderNum;
+
+    private OrderType orderType;
+
+    private Date updateDate;
+
+    private Long sortKey;
+
+    private Long popularity;
+
+    private String aliasOfCode;
+
+    private String parentCode;
+
+    private long childCount;
+
+    public AdminPageRowDto(Long id, String code, String captionEn, String captionUa, ContainerType containerType,
+                           Integer contentEnLength, Integer contentUaLength, Date creationDate, String imageUrl,
+                           String introEn, String introUa, Integer orderNum, OrderType orderType, Date updateDate,
+                           Long sortKey, Long popularity, String aliasOfCode, String parentCode) {
+
+        this.id = id;
+        this.code = code;
+        this.captionEn = captionEn;
+        this.captionUa = captionUa;
+        this.containerType = containerType;
+        this.contentEnPresent = contentEnLength != null && contentEnLength > 0;
+        this.contentUaPresent = contentUaLength != null && contentUaLength > 0;
+        this.creationDate = creationDate;
+        this.imageUrl = imageUrl;
+        this.introEn = introEn;
+        this.introUa = introUa;
+        this.orderNum = orderNum;
+        this.orderType = orderType;
+        this.updateDate = updateDate;
+        this.sortKey = sortKey;
+        this.popularity = popularity;
+        this.aliasOfCode = aliasOfCode;
+        this.parentCode = parentCode;
+    }
+}
@@ -0,0 +1,21 @@
+package ua.kpi.fict.cms.dto.response;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AdminPageSliceDto {
+
+    private List<AdminPageRowDto> rows;
+    /*
+     * encoded cursors of neighbour slices, null when there is no such slice
+     */
+    private String previousCursor;
+
+    private String nextCursor;
+}
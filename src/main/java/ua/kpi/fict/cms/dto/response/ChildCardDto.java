@@ -0,0 +1,19 @@
+package ua.kpi.fict.cms.dto.response;
+
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChildCardDto {
+
+    private String code;
+
+    private String imageUrl;
+
+    private String caption;
+
+    private String intro;
+}
@@ -0,0 +1,28 @@
+package ua.kpi.fict.cms.dto.response;
+
+import lombok.*;
+
+import java.util.List;
+
+/*
+ * pages removed together with page : its descendants and aliases of any of them, in dry run only reported
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PageDeleteDto {
+
+    private String code;
+
+    private boolean dryRun;
+
+    private int pages;
+
+    private int aliases;
+
+    private List<String> codes;
+
+    private long durationMillis;
+}
@@ -0,0 +1,24 @@
+package ua.kpi.fict.cms.dto.response;
+
+import lombok.*;
+
+import java.util.List;
+
+/*
+ * result of bulk import, rows are imported or listed in errors
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PageImportDto {
+
+    private int imported;
+
+    private int failed;
+
+    private List<PageImportErrorDto> errors;
+
+    private long durationMillis;
+}
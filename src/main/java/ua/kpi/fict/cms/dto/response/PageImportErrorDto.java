@@ -0,0 +1,20 @@
+package ua.kpi.fict.cms.dto.response;
+
+import lombok.*;
+
+/*
+ * page definition which was not imported, code is null when the line could not be read
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PageImportErrorDto {
+
+    private int line;
+
+    private String code;
+
+    private String message;
+}
@@ -0,0 +1,24 @@
+package ua.kpi.fict.cms.dto.response;
+
+import lombok.*;
+
+/*
+ * page moved with its subtree, sort key is its position under the new parent
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PageMoveDto {
+
+    private String code;
+
+    private String previousParentCode;
+
+    private String parentCode;
+
+    private long sortKey;
+
+    private long durationMillis;
+}
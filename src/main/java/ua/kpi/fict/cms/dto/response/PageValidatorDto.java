@@ -0,0 +1,18 @@
+package ua.kpi.fict.cms.dto.response;
+
+import lombok.*;
+
+/*
+ * conditional request validators of rendered view, lastModified is -1 when it is not known
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PageValidatorDto {
+
+    private String etag;
+
+    private long lastModified;
+}
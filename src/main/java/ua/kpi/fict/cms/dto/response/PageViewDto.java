@@ -0,0 +1,23 @@
+package ua.kpi.fict.cms.dto.response;
+
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PageViewDto {
+
+    private String code;
+
+    private String parentCode;
+
+    private String captionUa;
+
+    private String captionEn;
+    /*
+     * views of recent days in both languages, as of last flush
+     */
+    private long views;
+}
@@ -0,0 +1,23 @@
+package ua.kpi.fict.cms.dto.response;
+
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SearchHitDto {
+
+    private String code;
+
+    private String parentCode;
+
+    private String caption;
+
+    private String intro;
+
+    private String imageUrl;
+
+    private double score;
+}
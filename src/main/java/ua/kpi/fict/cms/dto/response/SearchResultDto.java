@@ -0,0 +1,29 @@
+package ua.kpi.fict.cms.dto.response;
+
+import lombok.*;
+import ua.kpi.fict.cms.entity.enums.Language;
+
+import java.util.List;
+
+/*
+ * one page of ranked search hits, page numbers start from 1
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SearchResultDto {
+
+    private String query;
+
+    private Language language;
+
+    private int total;
+
+    private int page;
+
+    private int size;
+
+    private List<SearchHitDto> hits;
+}
@@ -0,0 +1,28 @@
+package ua.kpi.fict.cms.dto.response;
+
+import lombok.*;
+
+/*
+ * result of static site export, counts are per page code (both languages together)
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SiteExportDto {
+
+    private String directory;
+
+    private int rendered;
+
+    private int redirects;
+
+    private int unchanged;
+
+    private int removed;
+
+    private int failed;
+
+    private long durationMillis;
+}
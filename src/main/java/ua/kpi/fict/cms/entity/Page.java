@@ -5,7 +5,10 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import ua.kpi.fict.cms.entity.enums.ContainerType;
 import ua.kpi.fict.cms.entity.enums.Language;
@@ -14,6 +17,7 @@ import ua.kpi.fict.cms.entity.enums.OrderType;
 import javax.persistence.*;
 import java.io.Serializable;
 import java.sql.Date;
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -22,8 +26,14 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "pages")
-public class Page implements Serializable {
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
+@Table(name = "pages", indexes = {
+        @Index(name = "pages_parent_sort_key_idx", columnList = "parent_code, sort_key, id"),
+        @Index(name = "pages_path_idx", columnList = "path"),
+        @Index(name = "pages_last_modified_idx", columnList = "last_modified")
+})
+public class Page implements Serializable, Sortable {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pages_generator")
@@ -52,11 +62,23 @@ public class Page implements Serializable {
     @Column(name = "intro_en", nullable = false)
     private String introEn;
 
-    @Column(name = "content_ua", length = 2000, nullable = false)
+    /*
+     * bodies are stored in page_contents (see PageContent), these fields only carry them
+     * between forms, import and service
+     */
+    @Transient
     private String contentUa;
 
-    @Column(name = "content_en", length = 2000, nullable = false)
+    @Transient
     private String contentEn;
+    /*
+     * lengths of bodies, so listings tell whether page has content without reading it
+     */
+    @Column(name = "content_ua_length")
+    private Integer contentUaLength;
+
+    @Column(name = "content_en_length")
+    private Integer contentEnLength;
 
     @Column(name = "image_url", nullable = false)
     private String imageUrl;
@@ -66,18 +88,40 @@ public class Page implements Serializable {
 
     @Column(name = "update_date", nullable = false)
     private Date updateDate;
+    /*
+     * exact time of last change, update date keeps only the day
+     */
+    @Column(name = "last_modified")
+    private Timestamp lastModified;
+    /*
+     * ids from root down to the page itself, "/1/5/12/", subtree of page is a range of paths starting with its own,
+     * 512 ascii characters stay inside index key limit of mysql
+     */
+    @Column(name = "path", length = 512)
+    private String path;
 
     @ManyToOne
     @JoinColumn(name = "parent_code", referencedColumnName = "code")
     private Page parentPage;
 
     @OneToMany(mappedBy = "parentPage", cascade = CascadeType.ALL)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<Page> childPages = new ArrayList<>();
     /*
      * to determine current page position in parent container
      */
     @Column(name = "order_num")
     private Integer orderNum;
+    /*
+     * position of page in parent container under parent order type, maintained on write
+     */
+    @Column(name = "sort_key", nullable = false)
+    private Long sortKey;
+    /*
+     * views of recent days in both languages, refreshed from page views when they are flushed
+     */
+    @Column(name = "popularity")
+    private Long popularity;
     /*
      * to determine order type of children in current container
      */
@@ -94,8 +138,14 @@ public class Page implements Serializable {
     private Page aliasOf;
 
     @OneToMany(mappedBy = "aliasOf", cascade = CascadeType.ALL)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<Page> aliases = new ArrayList<>();
 
+    public void updateContentLengths() {
+        contentUaLength = contentUa != null ? contentUa.length() : 0;
+        contentEnLength = contentEn != null ? contentEn.length() : 0;
+    }
+
     public String getCode(Language language) {
         return language == Language.UA
                 ? "" + code
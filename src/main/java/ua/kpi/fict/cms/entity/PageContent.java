@@ -0,0 +1,46 @@
+package ua.kpi.fict.cms.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import ua.kpi.fict.cms.entity.converter.CompressedTextConverter;
+
+import javax.persistence.*;
+import java.io.Serializable;
+
+/*
+ * bodies of page, kept apart from pages table, so reading pages for listings, child cards and the tree
+ * never touches them, read only when page itself is rendered, edited or indexed
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "page_contents")
+public class PageContent implements Serializable {
+    /*
+     * bound of stored (compressed) body, mediumblob on mysql
+     */
+    private static final int MAX_STORED_LENGTH = 16777215;
+    /*
+     * id of the page
+     */
+    @Id
+    @Column(name = "page_id")
+    private Long pageId;
+
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(name = "content_ua", length = MAX_STORED_LENGTH, nullable = false)
+    private String contentUa;
+
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(name = "content_en", length = MAX_STORED_LENGTH, nullable = false)
+    private String contentEn;
+
+    public static PageContent of(Page page) {
+        return new PageContent(page.getId(), page.getContentUa(), page.getContentEn());
+    }
+}
@@ -0,0 +1,29 @@
+package ua.kpi.fict.cms.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.io.Serializable;
+
+/*
+ * views of page in one language during one day, counted in memory and added here in batches
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "page_views", indexes = {
+        @Index(name = "page_views_date_idx", columnList = "view_date, page_id, views")
+})
+public class PageView implements Serializable {
+
+    @EmbeddedId
+    private PageViewId id;
+
+    @Column(name = "views", nullable = false)
+    private Long views;
+}
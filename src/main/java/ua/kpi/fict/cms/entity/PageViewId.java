@@ -0,0 +1,30 @@
+package ua.kpi.fict.cms.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import ua.kpi.fict.cms.entity.enums.Language;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Embeddable
+public class PageViewId implements Serializable {
+    /*
+     * id of the page
+     */
+    @Column(name = "page_id")
+    private Long pageId;
+
+    @Column(name = "language", length = 2)
+    @Enumerated(EnumType.STRING)
+    private Language language;
+
+    @Column(name = "view_date")
+    private LocalDate viewDate;
+}
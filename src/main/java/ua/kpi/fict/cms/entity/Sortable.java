@@ -0,0 +1,17 @@
+package ua.kpi.fict.cms.entity;
+
+import java.util.Date;
+
+/*
+ * fields children are ordered by in parent container
+ */
+public interface Sortable {
+
+    Date getCreationDate();
+
+    Date getUpdateDate();
+
+    Integer getOrderNum();
+
+    Long getPopularity();
+}
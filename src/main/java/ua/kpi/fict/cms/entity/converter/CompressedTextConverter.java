@@ -0,0 +1,98 @@
+package ua.kpi.fict.cms.entity.converter;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/*
+ * text stored as utf-8 bytes behind one format byte, bodies long enough to gain from it are deflated
+ */
+@Converter
+public class CompressedTextConverter implements AttributeConverter<String, byte[]> {
+
+    private static final byte PLAIN = 0;
+
+    private static final byte DEFLATED = 1;
+    /*
+     * shorter text rarely shrinks enough to pay for inflating it on every read
+     */
+    private static final int COMPRESSION_THRESHOLD = 512;
+
+    @Override
+    public byte[] convertToDatabaseColumn(String text) {
+        if (text == null) {
+            return null;
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= COMPRESSION_THRESHOLD) {
+            byte[] deflated = deflate(bytes);
+            if (deflated.length < bytes.length) {
+                return withFormat(DEFLATED, deflated);
+            }
+        }
+        return withFormat(PLAIN, bytes);
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] column) {
+        if (column == null) {
+            return null;
+        }
+        if (column.length == 0) {
+            return "";
+        }
+        byte[] bytes = column[0] == DEFLATED
+                ? inflate(column)
+                : Arrays.copyOfRange(column, 1, column.length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] withFormat(byte format, byte[] bytes) {
+        byte[] column = new byte[bytes.length + 1];
+        column[0] = format;
+        System.arraycopy(bytes, 0, column, 1, bytes.length);
+        return column;
+    }
+
+    private static byte[] deflate(byte[] bytes) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] column) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(column, 1, column.length - 1);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(column.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int inflated = inflater.inflate(buffer);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Compressed text is truncated");
+                }
+                out.write(buffer, 0, inflated);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Compressed text is corrupted", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -1,30 +1,57 @@
 package ua.kpi.fict.cms.entity.enums;
 
-import ua.kpi.fict.cms.entity.Page;
+import ua.kpi.fict.cms.entity.Sortable;
 
+import java.time.Instant;
+import java.time.ZoneId;
 import java.util.Comparator;
+import java.util.Date;
+import java.util.function.ToLongFunction;
 
 public enum OrderType {
 
-    CREATION_DATE(
-            (page1, page2) -> page1.getCreationDate().compareTo(page2.getCreationDate())
-    ),
-
-    UPDATE_DATE(
-            (page1, page2) -> page1.getUpdateDate().compareTo(page2.getUpdateDate())
-    ),
-
-    DEFAULT(
-            (page1, page2) -> page1.getOrderNum().compareTo(page2.getOrderNum())
-    );
+    CREATION_DATE(page -> startOfDay(page.getCreationDate())),
+
+    UPDATE_DATE(page -> startOfDay(page.getUpdateDate())),
+    /*
+     * pages without order number go last
+     */
+    DEFAULT(page -> page.getOrderNum() != null ? page.getOrderNum() : Long.MAX_VALUE),
+    /*
+     * most viewed pages of recent days go first, sort keys follow view counts as they are flushed
+     */
+    POPULARITY(page -> page.getPopularity() != null ? -page.getPopularity() : 0);
+    /*
+     * position of page in parent container, persisted as sort key of page
+     */
+    private final ToLongFunction<Sortable> sortKey;
+
+    private final Comparator<Sortable> comparator;
+
+    OrderType(ToLongFunction<Sortable> sortKey) {
+        this.sortKey = sortKey;
+        this.comparator = Comparator.comparingLong(sortKey);
+    }
 
-    private final Comparator<Page> comparator;
+    public static OrderType of(OrderType orderType) {
+        return orderType != null ? orderType : DEFAULT;
+    }
 
-    OrderType(Comparator<Page> comparator) {
-        this.comparator = comparator;
+    public long getSortKey(Sortable page) {
+        return sortKey.applyAsLong(page);
     }
 
-    public Comparator<Page> getComparator() {
+    public Comparator<Sortable> getComparator() {
         return comparator;
     }
-}
\ No newline at end of file
+
+    /*
+     * dates are stored with day precision, so key of just saved page has to equal key of the same page
+     * read back after restart, pages of one day keep order of their ids
+     */
+    private static long startOfDay(Date date) {
+        ZoneId zone = ZoneId.systemDefault();
+        return Instant.ofEpochMilli(date.getTime()).atZone(zone).toLocalDate()
+                .atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+}
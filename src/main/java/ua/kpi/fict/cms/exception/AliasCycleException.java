@@ -0,0 +1,12 @@
+package ua.kpi.fict.cms.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class AliasCycleException extends RuntimeException {
+
+    public AliasCycleException(String code, String aliasOfCode) {
+        super(String.format("Page %s can not be an alias of %s : alias chain would form a cycle", code, aliasOfCode));
+    }
+}
@@ -0,0 +1,13 @@
+package ua.kpi.fict.cms.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class PageMoveCycleException extends RuntimeException {
+
+    public PageMoveCycleException(String code, String parentCode) {
+        super(String.format("Page %s can not be moved under %s : it is the page itself or one of its descendants",
+                code, parentCode));
+    }
+}
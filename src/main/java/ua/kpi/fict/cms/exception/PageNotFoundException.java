@@ -0,0 +1,15 @@
+package ua.kpi.fict.cms.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/*
+ * expected answer to random paths of crawlers, so it is thrown without stack trace
+ */
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class PageNotFoundException extends RuntimeException {
+
+    public PageNotFoundException(String code) {
+        super(String.format("Page %s does not exist", code), null, false, false);
+    }
+}
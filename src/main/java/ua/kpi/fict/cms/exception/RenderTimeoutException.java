@@ -0,0 +1,13 @@
+package ua.kpi.fict.cms.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import ua.kpi.fict.cms.entity.enums.Language;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class RenderTimeoutException extends RuntimeException {
+
+    public RenderTimeoutException(Language language, String code, long timeoutMillis) {
+        super(String.format("Render of %s page %s was not finished in %d ms", language, code, timeoutMillis));
+    }
+}
@@ -0,0 +1,12 @@
+package ua.kpi.fict.cms.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class ReservedPageCodeException extends RuntimeException {
+
+    public ReservedPageCodeException(String code) {
+        super(String.format("Page code %s is reserved", code));
+    }
+}
@@ -0,0 +1,12 @@
+package ua.kpi.fict.cms.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class RootPageException extends RuntimeException {
+
+    public RootPageException(String action) {
+        super(String.format("Root page can not be %s", action));
+    }
+}
@@ -0,0 +1,128 @@
+package ua.kpi.fict.cms.html;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * html template parsed once into literal segments and value slots,
+ * {0} slot writes html-escaped value, {!0} slot writes value as is (trusted markup)
+ */
+public final class HtmlFragment {
+
+    private final String[] literals;
+
+    private final int[] slots;
+
+    private final boolean[] raw;
+
+    private final int literalLength;
+
+    private HtmlFragment(String[] literals, int[] slots, boolean[] raw) {
+        this.literals = literals;
+        this.slots = slots;
+        this.raw = raw;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    public static HtmlFragment compile(String template) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        List<Boolean> raw = new ArrayList<>();
+
+        int start = 0;
+        int open = template.indexOf('{');
+        while (open >= 0) {
+            int close = template.indexOf('}', open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed slot in template : " + template);
+            }
+            boolean rawSlot = template.charAt(open + 1) == '!';
+            String index = template.substring(rawSlot ? open + 2 : open + 1, close);
+            literals.add(template.substring(start, open));
+            slots.add(Integer.parseInt(index));
+            raw.add(rawSlot);
+            start = close + 1;
+            open = template.indexOf('{', start);
+        }
+        literals.add(template.substring(start));
+
+        int[] slotArray = new int[slots.size()];
+        boolean[] rawArray = new boolean[raw.size()];
+        for (int i = 0; i < slotArray.length; i++) {
+            slotArray[i] = slots.get(i);
+            rawArray[i] = raw.get(i);
+        }
+        return new HtmlFragment(literals.toArray(new String[0]), slotArray, rawArray);
+    }
+
+    /*
+     * length of markup without values, to pre-size builders
+     */
+    public int getLiteralLength() {
+        return literalLength;
+    }
+
+    public StringBuilder render(StringBuilder out, CharSequence... values) {
+        try {
+            write(out, values);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out;
+    }
+
+    public String render(CharSequence... values) {
+        return render(new StringBuilder(literalLength + 16 * slots.length), values).toString();
+    }
+
+    public void write(Appendable out, CharSequence... values) throws IOException {
+        for (int i = 0; i < slots.length; i++) {
+            out.append(literals[i]);
+            CharSequence value = values[slots[i]];
+            if (raw[i] && value != null) {
+                out.append(value);
+            } else if (!raw[i]) {
+                escape(out, value);
+            }
+        }
+        out.append(literals[slots.length]);
+    }
+
+    public static void escape(Appendable out, CharSequence value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            String replacement = getReplacement(value.charAt(i));
+            if (replacement != null) {
+                out.append(value, start, i).append(replacement);
+                start = i + 1;
+            }
+        }
+        out.append(value, start, value.length());
+    }
+
+    private static String getReplacement(char c) {
+        switch (c) {
+            case '&':
+                return "&amp;";
+            case '<':
+                return "&lt;";
+            case '>':
+                return "&gt;";
+            case '"':
+                return "&quot;";
+            case '\'':
+                return "&#39;";
+            default:
+                return null;
+        }
+    }
+}
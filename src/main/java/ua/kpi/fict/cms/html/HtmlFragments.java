@@ -0,0 +1,219 @@
+package ua.kpi.fict.cms.html;
+
+/*
+ * markup of rendered and admin pages, compiled once on class loading
+ */
+public final class HtmlFragments {
+
+    private static final String TABLE_CELL = "<td class=\"text-center\"><span>%s</span></td>";
+
+    private static final String CHILDREN_BUTTON =
+            "<a href=\"{0}/admin/pages?parentCode={1}\">" +
+            "         <button class=\"btn btn-success\">⟱</button>" +
+            "     </a>";
+
+    private static final String SHOW_BUTTON =
+            "<a href=\"{0}/admin/pages/{1}\">" +
+            "         <button class=\"btn btn-primary\">{17}</button>" +
+            "     </a>";
+
+    private static final String UPDATE_BUTTON =
+            "<a href=\"{0}/admin/pages/{1}/edit\">" +
+            "         <button class=\"btn btn-warning\">{18}</button>" +
+            "     </a>";
+
+    private static final String DELETE_BUTTON =
+            "<form action=\"{0}/admin/pages/{1}\" method=\"post\">" +
+            "         <input name=\"_method\" type=\"hidden\" value=\"delete\" />" +
+            "         <button class=\"btn btn-danger\">{19}</button>" +
+            "     </form>";
+    /*
+     * cells after the children button one : {0} language prefix, {1} code, {2} id, {3} caption en,
+     * {4} caption ua, {5} container type, {6} content en, {7} content ua, {8} creation date, {9} image url,
+     * {10} intro en, {11} intro ua, {12} order, {13} order type, {14} update date, {15} alias of,
+     * {16} parent code, {17} show, {18} update, {19} delete button texts
+     */
+    private static final String ROW_CELLS =
+            cell("{2}") + cell("{3}") + cell("{4}") + cell("{1}") + cell("{5}") + cell("{6}") + cell("{7}")
+            + cell("{8}") + cell("{9}") + cell("{10}") + cell("{11}") + cell("{12}") + cell("{13}") + cell("{14}")
+            + cell("{15}") + cell("{16}") + cell(SHOW_BUTTON) + cell(UPDATE_BUTTON) + cell(DELETE_BUTTON)
+            + "</tr>";
+
+    /*
+     * streamed page document, same markup as base_template with fragments::head and fragments::languages
+     * : {0} language, {!1} meta
+     */
+    public static final HtmlFragment DOCUMENT_HEAD = HtmlFragment.compile(
+            "<!DOCTYPE html>\n" +
+            "<html lang=\"{0}\">\n" +
+            "<head>\n" +
+            "    <meta charset=\"utf-8\">\n" +
+            "    <meta name=\"viewport\" content=\"width=device-width, initial-scale=1, shrink-to-fit=no\">\n" +
+            "    {!1}\n" +
+            "    <link rel=\"stylesheet\" href=\"https://stackpath.bootstrapcdn.com/bootstrap/4.4.1/css/bootstrap.min.css\"/>\n" +
+            "    <link href=\"https://fonts.googleapis.com/css?family=Jura&display=swap\" rel=\"stylesheet\">\n" +
+            "    <link href=\"https://fonts.googleapis.com/css2?family=Monofett&display=swap\" rel=\"stylesheet\">\n" +
+            "    <link rel=\"stylesheet\" href=\"/css/styled.css\">\n" +
+            "</head>\n");
+    /*
+     * {!0} header, {!1} subheader, {2} title
+     */
+    public static final HtmlFragment DOCUMENT_BODY_START = HtmlFragment.compile(
+            "<body class=\"bg-light\">\n" +
+            "    <div class=\"languages\">\n" +
+            "        <button type=\"button\" class=\"btn btn-primary btn-language\" value=\"en\">EN</button>\n" +
+            "        <button type=\"button\" class=\"btn btn-secondary btn-language\" value=\"ua\">УКР</button>\n" +
+            "        <script type=\"text/javascript\" src=\"/js/changeLang.js\"></script>\n" +
+            "    </div>\n" +
+            "    <div class=\"header container mb-2\">\n" +
+            "        {!0}\n" +
+            "    </div>\n" +
+            "    <div class=\"container my-3\">\n" +
+            "        <div>{!1}</div>\n" +
+            "        <h1 class=\"mb-4\">{2}</h1>\n" +
+            "        ");
+    /*
+     * written only for page with image, as base_template does, {0} image url
+     */
+    public static final HtmlFragment DOCUMENT_IMAGE = HtmlFragment.compile(
+            "<img class=\"img-big\" src=\"{0}\">\n" +
+            "        ");
+    /*
+     * {!0} footer
+     */
+    public static final HtmlFragment DOCUMENT_END = HtmlFragment.compile(
+            "\n    </div>\n" +
+            "    <div class=\"footer container mt-2\">\n" +
+            "        {!0}\n" +
+            "    </div>\n" +
+            "</body>\n" +
+            "</html>\n");
+    /*
+     * exported alias page, {0} target link
+     */
+    public static final HtmlFragment REDIRECT_STUB = HtmlFragment.compile(
+            "<!DOCTYPE html>\n" +
+            "<html>\n" +
+            "<head>\n" +
+            "    <meta charset=\"utf-8\">\n" +
+            "    <meta http-equiv=\"refresh\" content=\"0; url={0}\">\n" +
+            "    <link rel=\"canonical\" href=\"{0}\">\n" +
+            "</head>\n" +
+            "<body>\n" +
+            "    <a href=\"{0}\">{0}</a>\n" +
+            "</body>\n" +
+            "</html>\n");
+
+    public static final HtmlFragment META = HtmlFragment.compile(
+            "        <title>{0}</title>" +
+            "<meta name=\"description\" content=\"{1}\">");
+
+    public static final String BREADCRUMBS_START = "<nav class=\"breadcrumbs\">";
+
+    public static final String BREADCRUMBS_END = "</nav>";
+
+    public static final String BREADCRUMB_SEPARATOR = "<span class=\"breadcrumb-separator\">/</span>";
+    /*
+     * {0} link, {1} caption
+     */
+    public static final HtmlFragment BREADCRUMB = HtmlFragment.compile(
+            "<a class=\"custom-a back-link\" href=\"{0}\">{1}</a>");
+
+    public static final HtmlFragment CHILD_CONTAINER_START = HtmlFragment.compile(
+            "<div class=\"child-container child-container-{0}\">");
+
+    public static final String CHILD_CONTAINER_END = "</div>";
+    /*
+     * {0} additional class, {1} image url, {2} caption, {3} intro, {4} language prefix, {5} code, {6} open link text
+     */
+    public static final HtmlFragment CHILD_CARD = HtmlFragment.compile(
+            "<div class=\"child-reference {0}\">" +
+            "<img class=\"img-small\" src=\"{1}\" />" +
+            "<h3>{2}</h3>" +
+            "<p>{3}</p>" +
+            "<a class=\"custom-a\" href=\"{4}{5}\">{6}</a>" +
+            "</div>");
+
+    /*
+     * {0} language prefix, {1} query, {2} placeholder, {3} button text
+     */
+    public static final HtmlFragment SEARCH_FORM = HtmlFragment.compile(
+            "<form class=\"form-inline mb-4\" action=\"{0}/search\" method=\"get\">" +
+            "<input class=\"form-control mr-2\" type=\"search\" name=\"q\" value=\"{1}\" placeholder=\"{2}\">" +
+            "<button class=\"btn btn-primary\">{3}</button>" +
+            "</form>");
+
+    public static final HtmlFragment SEARCH_SUMMARY = HtmlFragment.compile(
+            "<p class=\"text-muted mb-4\">{0}</p>");
+    /*
+     * {0} language prefix, {1} url encoded query, {2} page number, {3} button text
+     */
+    public static final HtmlFragment SEARCH_PAGINATION_BUTTON = HtmlFragment.compile(
+            "<a class=\"mx-2\" href=\"{0}/search?q={1}&page={2}\">" +
+            "         <button class=\"btn btn-secondary\">{3}</button>" +
+            "     </a>");
+
+    public static final HtmlFragment HEADER = HtmlFragment.compile(
+            "<h2>{0}</h2>");
+
+    public static final HtmlFragment FOOTER = HtmlFragment.compile(
+            "          <h3>{0}</h3>" +
+            "<h5>{1}</h5>");
+
+    public static final HtmlFragment ALERT = HtmlFragment.compile(
+            "<div class=\"alert alert-{0} mb-4\">{1}</div>");
+
+    public static final String ADMIN_BREADCRUMBS_START = "<div class=\"row d-flex justify-content-start mt-4 mb-5 ml-1\">";
+
+    public static final String ADMIN_BREADCRUMBS_END = "</div>";
+    /*
+     * {0} language prefix, {1} parent code, {2} button style, {3} button text
+     */
+    public static final HtmlFragment ADMIN_BREADCRUMB = HtmlFragment.compile(
+            "<a class=\"mr-2\" href=\"{0}/admin/pages?parentCode={1}\">" +
+            "         <button class=\"btn btn-{2}\">{3}</button>" +
+            "     </a>");
+
+    public static final HtmlFragment INDEX_PAGE_HEADER = HtmlFragment.compile(
+            "<h2 class=\"mb-4\">{0}</h2>");
+
+    public static final String INDEX_TABLE_START =
+            "<table class=\"table-striped table-responsive-lg table-bordered table-sm table-hover shadow rounded mt-5\">";
+
+    public static final String INDEX_TABLE_END = "</table>";
+
+    public static final HtmlFragment CREATE_BUTTON = HtmlFragment.compile(
+            "<div class=\"row d-flex justify-content-center mt-4\">" +
+            "            <a href=\"{0}/admin/pages/create?parentCode={1}\">" +
+            "               <button class=\"btn btn-success\">{2}</button>" +
+            "            </a>" +
+            "        </div>");
+
+    public static final String PAGINATION_START = "<div class=\"row d-flex justify-content-center mt-4\">";
+
+    public static final String PAGINATION_END = "</div>";
+
+    public static final HtmlFragment PAGINATION_BUTTON = HtmlFragment.compile(
+            "<a class=\"mx-2\" href=\"{0}/admin/pages?parentCode={1}&size={2}&cursor={3}\">" +
+            "         <button class=\"btn btn-secondary\">{4}</button>" +
+            "     </a>");
+
+    public static final HtmlFragment TABLE_HEADER_CELL = HtmlFragment.compile(
+            "<th class=\"text-center\">{0}</th>");
+
+    /*
+     * whole table row, with and without button leading to children, see ROW_CELLS for values
+     */
+    public static final HtmlFragment ROW_WITH_CHILDREN = HtmlFragment.compile(
+            "<tr>" + cell(CHILDREN_BUTTON) + ROW_CELLS);
+
+    public static final HtmlFragment ROW_WITHOUT_CHILDREN = HtmlFragment.compile(
+            "<tr>" + cell("") + ROW_CELLS);
+
+    private HtmlFragments() {
+    }
+
+    private static String cell(String content) {
+        return String.format(TABLE_CELL, content);
+    }
+}
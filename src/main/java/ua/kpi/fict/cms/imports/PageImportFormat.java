@@ -0,0 +1,22 @@
+package ua.kpi.fict.cms.imports;
+
+import org.springframework.http.MediaType;
+
+public enum PageImportFormat {
+
+    NDJSON,
+    /*
+     * first record is header with field names of page import row
+     */
+    CSV;
+
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+
+    public static final String CSV_VALUE = "text/csv";
+
+    public static PageImportFormat of(MediaType contentType) {
+        return contentType != null && contentType.isCompatibleWith(MediaType.valueOf(CSV_VALUE))
+                ? CSV
+                : NDJSON;
+    }
+}
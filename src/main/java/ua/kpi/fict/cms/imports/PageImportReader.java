@@ -0,0 +1,199 @@
+package ua.kpi.fict.cms.imports;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ua.kpi.fict.cms.dto.request.PageImportRow;
+import ua.kpi.fict.cms.dto.response.PageImportErrorDto;
+import ua.kpi.fict.cms.entity.enums.ContainerType;
+import ua.kpi.fict.cms.entity.enums.OrderType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/*
+ * reads page definitions of bulk import line by line, lines which can not be read are reported as errors
+ * and do not stop the rest of the stream
+ */
+@RequiredArgsConstructor
+@Component
+public class PageImportReader {
+
+    private static final Map<String, BiConsumer<PageImportRow, String>> CSV_FIELDS = new LinkedHashMap<>();
+
+    static {
+        CSV_FIELDS.put("code", PageImportRow::setCode);
+        CSV_FIELDS.put("parentCode", PageImportRow::setParentCode);
+        CSV_FIELDS.put("aliasOf", PageImportRow::setAliasOf);
+        CSV_FIELDS.put("captionUa", PageImportRow::setCaptionUa);
+        CSV_FIELDS.put("captionEn", PageImportRow::setCaptionEn);
+        CSV_FIELDS.put("introUa", PageImportRow::setIntroUa);
+        CSV_FIELDS.put("introEn", PageImportRow::setIntroEn);
+        CSV_FIELDS.put("contentUa", PageImportRow::setContentUa);
+        CSV_FIELDS.put("contentEn", PageImportRow::setContentEn);
+        CSV_FIELDS.put("imageUrl", PageImportRow::setImageUrl);
+        CSV_FIELDS.put("orderNum", (row, value) -> row.setOrderNum(Integer.valueOf(value)));
+        CSV_FIELDS.put("orderType", (row, value) -> row.setOrderType(OrderType.valueOf(value)));
+        CSV_FIELDS.put("containerType", (row, value) -> row.setContainerType(ContainerType.valueOf(value)));
+    }
+
+    private final ObjectMapper objectMapper;
+
+    public List<PageImportRow> read(InputStream input,
+                                    PageImportFormat format,
+                                    List<PageImportErrorDto> errors) throws IOException {
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        return format == PageImportFormat.CSV
+                ? readCsv(reader, errors)
+                : readNdjson(reader, errors);
+    }
+
+    private List<PageImportRow> readNdjson(BufferedReader reader, List<PageImportErrorDto> errors) throws IOException {
+        List<PageImportRow> rows = new ArrayList<>();
+        int lineNumber = 0;
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                PageImportRow row = objectMapper.readValue(line, PageImportRow.class);
+                row.setLine(lineNumber);
+                rows.add(row);
+            } catch (JsonProcessingException e) {
+                errors.add(new PageImportErrorDto(lineNumber, null, "Malformed json : " + e.getOriginalMessage()));
+            }
+        }
+        return rows;
+    }
+
+    /*
+     * rfc 4180 records, quoted values may hold separators, doubled quotes and line breaks,
+     * empty values are taken as missing
+     */
+    private List<PageImportRow> readCsv(BufferedReader reader, List<PageImportErrorDto> errors) throws IOException {
+        List<PageImportRow> rows = new ArrayList<>();
+        CsvRecordReader records = new CsvRecordReader(reader);
+        List<String> header = records.next();
+        if (header == null) {
+            return rows;
+        }
+        /*
+         * misspelled column would silently drop its values, so nothing is read
+         */
+        for (String field : header) {
+            if (!CSV_FIELDS.containsKey(field)) {
+                errors.add(new PageImportErrorDto(1, null, "Unknown column : " + field));
+                return rows;
+            }
+        }
+        for (List<String> record = records.next(); record != null; record = records.next()) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            PageImportRow row = new PageImportRow();
+            row.setLine(records.getRecordLine());
+            try {
+                if (record.size() != header.size()) {
+                    throw new IllegalArgumentException("expected " + header.size() + " values, found " + record.size());
+                }
+                for (int i = 0; i < header.size(); i++) {
+                    String value = record.get(i);
+                    if (!value.isEmpty()) {
+                        CSV_FIELDS.get(header.get(i)).accept(row, value);
+                    }
+                }
+                rows.add(row);
+            } catch (IllegalArgumentException e) {
+                errors.add(new PageImportErrorDto(row.getLine(), row.getCode(), "Malformed csv record : " + e.getMessage()));
+            }
+        }
+        if (records.isUnterminated()) {
+            errors.add(new PageImportErrorDto(records.getRecordLine(), null, "Quoted value is not closed till the end"));
+        }
+        return rows;
+    }
+
+    private static class CsvRecordReader {
+
+        private final BufferedReader reader;
+
+        private int lineNumber;
+
+        private int recordLine;
+
+        private boolean unterminated;
+
+        private CsvRecordReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        /*
+         * null at the end of stream
+         */
+        private List<String> next() throws IOException {
+            String line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            recordLine = ++lineNumber;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            int i = 0;
+            while (true) {
+                if (i == line.length()) {
+                    if (!quoted) {
+                        fields.add(field.toString());
+                        return fields;
+                    }
+                    line = reader.readLine();
+                    if (line == null) {
+                        unterminated = true;
+                        return null;
+                    }
+                    lineNumber++;
+                    field.append('\n');
+                    i = 0;
+                    continue;
+                }
+                char c = line.charAt(i++);
+                if (quoted) {
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i < line.length() && line.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else {
+                    field.append(c);
+                }
+            }
+        }
+
+        private int getRecordLine() {
+            return recordLine;
+        }
+
+        private boolean isUnterminated() {
+            return unterminated;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package ua.kpi.fict.cms.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/*
+ * timers of page service methods and counters of page and page content repository calls, tagged by method name
+ */
+@RequiredArgsConstructor
+@Aspect
+@Component
+public class PageMetricsAspect {
+
+    private static final String NONE = "None";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(public * ua.kpi.fict.cms.service.PageService+.*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = NONE;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("cms.page.service")
+                    .description("Page service method execution time")
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+
+    @Around("execution(public * ua.kpi.fict.cms.repository.PageRepository+.*(..)) "
+            + "|| execution(public * ua.kpi.fict.cms.repository.PageContentRepository+.*(..))")
+    public Object countRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        Counter.builder("cms.page.repository.calls")
+                .description("Page repository method calls")
+                .tag("method", joinPoint.getSignature().getName())
+                .register(meterRegistry)
+                .increment();
+        return joinPoint.proceed();
+    }
+}
@@ -0,0 +1,50 @@
+package ua.kpi.fict.cms.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * sees every statement hibernate prepares, counts them in total and for the request handled by current thread,
+ * statements are passed on unchanged
+ */
+@Component
+public class SqlStatementCounter implements StatementInspector, MeterBinder {
+
+    private final LongAdder total = new LongAdder();
+    /*
+     * null outside of request, statements of startup and background tasks are only counted in total
+     */
+    private final ThreadLocal<int[]> requestCount = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        total.increment();
+        int[] count = requestCount.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    public void startRequest() {
+        requestCount.set(new int[1]);
+    }
+
+    public int finishRequest() {
+        int[] count = requestCount.get();
+        requestCount.remove();
+        return count != null ? count[0] : 0;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cms.sql.statements", total, LongAdder::sum)
+                .description("Sql statements prepared by hibernate")
+                .register(registry);
+    }
+}
@@ -0,0 +1,56 @@
+package ua.kpi.fict.cms.metrics;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/*
+ * passes characters on and counts how many bytes they take in utf-8, for streamed payload sizes
+ */
+public class Utf8CountingWriter extends FilterWriter {
+
+    private long byteCount;
+
+    public Utf8CountingWriter(Writer out) {
+        super(out);
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        out.write(c);
+        byteCount += utf8Length((char) c);
+    }
+
+    @Override
+    public void write(char[] chars, int off, int len) throws IOException {
+        out.write(chars, off, len);
+        for (int i = off; i < off + len; i++) {
+            byteCount += utf8Length(chars[i]);
+        }
+    }
+
+    @Override
+    public void write(String text, int off, int len) throws IOException {
+        out.write(text, off, len);
+        for (int i = off; i < off + len; i++) {
+            byteCount += utf8Length(text.charAt(i));
+        }
+    }
+
+    public long getByteCount() {
+        return byteCount;
+    }
+
+    /*
+     * each half of surrogate pair is taken as 2 bytes, 4 for the pair
+     */
+    private static int utf8Length(char c) {
+        if (c < 0x80) {
+            return 1;
+        }
+        if (c < 0x800 || Character.isSurrogate(c)) {
+            return 2;
+        }
+        return 3;
+    }
+}
@@ -0,0 +1,96 @@
+package ua.kpi.fict.cms.migration;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ua.kpi.fict.cms.entity.converter.CompressedTextConverter;
+
+import javax.annotation.PostConstruct;
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * bodies used to be columns of pages table, schema update adds page_contents but never drops columns,
+ * so bodies of databases created before are copied at startup, before pages are read. old columns are
+ * left in place for previous release to roll back to, they get empty default as pages are no longer
+ * inserted with them, dropping them is left to a later release once copy is checked
+ */
+@RequiredArgsConstructor
+@Log4j2
+@Component
+@DependsOn("entityManagerFactory")
+public class LegacyContentMigration {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final CompressedTextConverter CONTENT_CONVERTER = new CompressedTextConverter();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void migrate() {
+        if (!hasLegacyColumns()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        List<Object[]> contents = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> lengths = new ArrayList<>(BATCH_SIZE);
+        int[] moved = {0};
+        jdbcTemplate.query("select id, content_ua, content_en from pages "
+                + "where id not in (select page_id from page_contents)", resultSet -> {
+            long id = resultSet.getLong(1);
+            String contentUa = resultSet.getString(2);
+            String contentEn = resultSet.getString(3);
+            contents.add(new Object[]{id,
+                    CONTENT_CONVERTER.convertToDatabaseColumn(contentUa != null ? contentUa : ""),
+                    CONTENT_CONVERTER.convertToDatabaseColumn(contentEn != null ? contentEn : "")});
+            lengths.add(new Object[]{length(contentUa), length(contentEn), id});
+            if (contents.size() == BATCH_SIZE) {
+                moved[0] += flush(contents, lengths);
+            }
+        });
+        moved[0] += flush(contents, lengths);
+
+        jdbcTemplate.execute("alter table pages alter column content_ua set default ''");
+        jdbcTemplate.execute("alter table pages alter column content_en set default ''");
+        log.info("Bodies of {} pages copied to page contents in {} ms", moved[0], System.currentTimeMillis() - start);
+
+        Integer missing = jdbcTemplate.queryForObject("select count(*) from pages "
+                + "where id not in (select page_id from page_contents)", Integer.class);
+        if (missing != null && missing > 0) {
+            log.warn("Bodies of {} pages are not copied to page contents", missing);
+        }
+    }
+
+    private boolean hasLegacyColumns() {
+        return Boolean.TRUE.equals(jdbcTemplate.query("select * from pages where 1 = 0", resultSet -> {
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                if (metaData.getColumnName(i).equalsIgnoreCase("content_ua")) {
+                    return true;
+                }
+            }
+            return false;
+        }));
+    }
+
+    private int flush(List<Object[]> contents, List<Object[]> lengths) {
+        int size = contents.size();
+        if (size > 0) {
+            jdbcTemplate.batchUpdate("insert into page_contents (page_id, content_ua, content_en) values (?, ?, ?)",
+                    contents);
+            jdbcTemplate.batchUpdate("update pages set content_ua_length = ?, content_en_length = ? where id = ?",
+                    lengths);
+            contents.clear();
+            lengths.clear();
+        }
+        return size;
+    }
+
+    private static int length(String content) {
+        return content != null ? content.length() : 0;
+    }
+}
@@ -0,0 +1,102 @@
+package ua.kpi.fict.cms.migration;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * schema update adds path column empty, so paths of pages stored before are computed once at startup
+ * from parent codes, page tree snapshot is built only after them
+ */
+@RequiredArgsConstructor
+@Log4j2
+@Component
+@DependsOn("entityManagerFactory")
+public class PagePathMigration {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String PATH_SEPARATOR = "/";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void migrate() {
+        Integer missing = jdbcTemplate.queryForObject("select count(*) from pages where path is null", Integer.class);
+        if (missing == null || missing == 0) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        Map<String, Long> ids = new HashMap<>();
+        Map<String, String> parentCodes = new HashMap<>();
+        Map<String, String> paths = new HashMap<>();
+        Set<String> storedCodes = new HashSet<>();
+        jdbcTemplate.query("select id, code, parent_code, path from pages", resultSet -> {
+            String code = resultSet.getString(2);
+            ids.put(code, resultSet.getLong(1));
+            parentCodes.put(code, resultSet.getString(3));
+            if (resultSet.getString(4) != null) {
+                paths.put(code, resultSet.getString(4));
+                storedCodes.add(code);
+            }
+        });
+
+        List<Object[]> updates = new ArrayList<>(BATCH_SIZE);
+        int updated = 0;
+        for (String code : ids.keySet()) {
+            if (storedCodes.contains(code)) {
+                continue;
+            }
+            String path = computePath(code, ids, parentCodes, paths);
+            updates.add(new Object[]{path, ids.get(code)});
+            if (updates.size() == BATCH_SIZE) {
+                updated += flush(updates);
+            }
+        }
+        updated += flush(updates);
+        log.info("Paths of {} pages computed in {} ms", updated, System.currentTimeMillis() - start);
+    }
+
+    /*
+     * climbs to the nearest page with known path, pages on the way get theirs remembered too,
+     * broken parent chains start from the top
+     */
+    private static String computePath(String code,
+                                      Map<String, Long> ids,
+                                      Map<String, String> parentCodes,
+                                      Map<String, String> paths) {
+
+        List<String> chain = new ArrayList<>();
+        Set<String> visited = new HashSet<>();
+        String current = code;
+        while (current != null && ids.containsKey(current) && !paths.containsKey(current) && visited.add(current)) {
+            chain.add(current);
+            current = parentCodes.get(current);
+        }
+        String path = current != null && paths.containsKey(current) ? paths.get(current) : PATH_SEPARATOR;
+        for (int i = chain.size() - 1; i >= 0; i--) {
+            path = path + ids.get(chain.get(i)) + PATH_SEPARATOR;
+            paths.put(chain.get(i), path);
+        }
+        return paths.get(code);
+    }
+
+    private int flush(List<Object[]> updates) {
+        int size = updates.size();
+        if (size > 0) {
+            jdbcTemplate.batchUpdate("update pages set path = ? where id = ?", updates);
+            updates.clear();
+        }
+        return size;
+    }
+}
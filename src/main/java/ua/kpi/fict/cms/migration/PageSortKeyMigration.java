@@ -0,0 +1,67 @@
+package ua.kpi.fict.cms.migration;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ua.kpi.fict.cms.entity.enums.OrderType;
+import ua.kpi.fict.cms.tree.PageNode;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * schema update adds sort key column empty and never makes existing column not null, so keys of pages
+ * stored before, or written outside of application, are filled once at startup before pages are listed,
+ * keyset pagination of admin index needs every row to have one
+ */
+@RequiredArgsConstructor
+@Log4j2
+@Component
+@DependsOn("entityManagerFactory")
+public class PageSortKeyMigration {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void migrate() {
+        Integer missing = jdbcTemplate.queryForObject("select count(*) from pages where sort_key is null", Integer.class);
+        if (missing == null || missing == 0) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        List<Object[]> updates = new ArrayList<>(BATCH_SIZE);
+        int[] updated = {0};
+        jdbcTemplate.query("select p.id, p.creation_date, p.update_date, p.order_num, p.popularity, parent.order_type "
+                + "from pages p left join pages parent on parent.code = p.parent_code "
+                + "where p.sort_key is null", resultSet -> {
+            PageNode node = PageNode.builder()
+                    .creationDate(resultSet.getDate(2))
+                    .updateDate(resultSet.getDate(3))
+                    .orderNum(resultSet.getObject(4, Integer.class))
+                    .popularity(resultSet.getObject(5, Long.class))
+                    .build();
+            String parentOrderType = resultSet.getString(6);
+            OrderType orderType = OrderType.of(parentOrderType != null ? OrderType.valueOf(parentOrderType) : null);
+            updates.add(new Object[]{orderType.getSortKey(node), resultSet.getLong(1)});
+            if (updates.size() == BATCH_SIZE) {
+                updated[0] += flush(updates);
+            }
+        });
+        updated[0] += flush(updates);
+        log.info("Sort keys of {} pages filled in {} ms", updated[0], System.currentTimeMillis() - start);
+    }
+
+    private int flush(List<Object[]> updates) {
+        int size = updates.size();
+        if (size > 0) {
+            jdbcTemplate.batchUpdate("update pages set sort_key = ? where id = ?", updates);
+            updates.clear();
+        }
+        return size;
+    }
+}
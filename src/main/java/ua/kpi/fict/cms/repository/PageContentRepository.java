@@ -0,0 +1,27 @@
+package ua.kpi.fict.cms.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ua.kpi.fict.cms.entity.PageContent;
+import ua.kpi.fict.cms.entity.enums.Language;
+
+import java.util.Optional;
+
+public interface PageContentRepository extends JpaRepository<PageContent, Long> {
+
+    @Query("select c.contentUa from PageContent c where c.pageId = :pageId")
+    Optional<String> findUaContent(@Param("pageId") Long pageId);
+
+    @Query("select c.contentEn from PageContent c where c.pageId = :pageId")
+    Optional<String> findEnContent(@Param("pageId") Long pageId);
+
+    /*
+     * body of one language only, the other one is not read
+     */
+    default Optional<String> findContent(Long pageId, Language language) {
+        return language == Language.UA
+                ? findUaContent(pageId)
+                : findEnContent(pageId);
+    }
+}
@@ -1,14 +1,91 @@
 package ua.kpi.fict.cms.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ua.kpi.fict.cms.dto.response.ChildCardDto;
 import ua.kpi.fict.cms.entity.Page;
+import ua.kpi.fict.cms.entity.enums.Language;
+import ua.kpi.fict.cms.search.SearchDocument;
+import ua.kpi.fict.cms.tree.PageNode;
 
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface PageRepository extends JpaRepository<Page, Long> {
+public interface PageRepository extends JpaRepository<Page, Long>, PageRepositoryCustom {
 
-    Optional<Page> findByCode(String code);
+    String NODE_QUERY = "select new ua.kpi.fict.cms.tree.PageNode(p.id, p.code, parent.code, alias.code, "
+            + "p.captionUa, p.captionEn, p.introUa, p.introEn, p.imageUrl, "
+            + "p.orderNum, p.orderType, p.containerType, p.creationDate, p.updateDate, p.lastModified, p.path, "
+            + "p.popularity) "
+            + "from Page p left join p.parentPage parent left join p.aliasOf alias ";
 
     List<Page> findByParentPageCode(String code);
+
+    @Query(NODE_QUERY)
+    List<PageNode> findAllNodes();
+
+    @Query(NODE_QUERY + "where p.code = :code")
+    Optional<PageNode> findNode(@Param("code") String code);
+
+    /*
+     * pages changed after given time, pages stored before exact modification time was kept are matched by day
+     */
+    @Query(NODE_QUERY + "where p.lastModified > :since "
+            + "or (p.lastModified is null and p.updateDate >= :sinceDay)")
+    List<PageNode> findNodesModifiedSince(@Param("since") Timestamp since, @Param("sinceDay") Date sinceDay);
+
+    @Query("select p.code from Page p")
+    List<String> findAllCodes();
+
+    @Query(NODE_QUERY + "where p.code in :codes")
+    List<PageNode> findNodesByCodes(@Param("codes") Collection<String> codes);
+
+    @Query(NODE_QUERY + "where p.path like :pattern")
+    List<PageNode> findNodesByPathLike(@Param("pattern") String pattern);
+
+    /*
+     * page with given path and everything below it, one range scan of path index
+     */
+    default List<PageNode> findSubtreeNodes(String path) {
+        return findNodesByPathLike(path + "%");
+    }
+
+    @Query("select new ua.kpi.fict.cms.dto.response.ChildCardDto(p.code, p.imageUrl, p.captionUa, p.introUa) "
+            + "from Page p join p.parentPage parent where parent.code = :parentCode order by p.sortKey, p.id")
+    List<ChildCardDto> findUaChildCards(@Param("parentCode") String parentCode);
+
+    @Query("select new ua.kpi.fict.cms.dto.response.ChildCardDto(p.code, p.imageUrl, p.captionEn, p.introEn) "
+            + "from Page p join p.parentPage parent where parent.code = :parentCode order by p.sortKey, p.id")
+    List<ChildCardDto> findEnChildCards(@Param("parentCode") String parentCode);
+
+    /*
+     * only fields shown on child card, without content and associations of children,
+     * already ordered by persisted sort key
+     */
+    default List<ChildCardDto> findChildCards(String parentCode, Language language) {
+        return language == Language.UA
+                ? findUaChildCards(parentCode)
+                : findEnChildCards(parentCode);
+    }
+
+    @Query("select parent.code, count(p) from Page p join p.parentPage parent "
+            + "where parent.code in :parentCodes group by parent.code")
+    List<Object[]> countChildrenByParentCodes(@Param("parentCodes") Collection<String> parentCodes);
+
+    @Query("select p.code, p.sortKey from Page p")
+    List<Object[]> findAllSortKeys();
+
+    /*
+     * searchable pages after given id, aliases are left out as they show content of their target
+     */
+    @Query("select new ua.kpi.fict.cms.search.SearchDocument(p.id, p.code, p.captionUa, p.captionEn, "
+            + "p.introUa, p.introEn, c.contentUa, c.contentEn) "
+            + "from Page p, PageContent c "
+            + "where c.pageId = p.id and p.aliasOf is null and p.id > :afterId order by p.id")
+    List<SearchDocument> findSearchDocuments(@Param("afterId") long afterId, Pageable pageable);
 }
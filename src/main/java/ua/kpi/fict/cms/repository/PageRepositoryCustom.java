@@ -0,0 +1,81 @@
+package ua.kpi.fict.cms.repository;
+
+import ua.kpi.fict.cms.dto.request.PageCursor;
+import ua.kpi.fict.cms.dto.response.AdminPageRowDto;
+import ua.kpi.fict.cms.entity.Page;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface PageRepositoryCustom {
+
+    /*
+     * resolved by natural id, answered from second level cache when page was loaded before
+     */
+    Optional<Page> findByCode(String code);
+
+    /*
+     * children of parent ordered by (sort key, id), starting right after (or before) cursor
+     */
+    List<AdminPageRowDto> findAdminRows(String parentCode, PageCursor cursor, int limit);
+
+    /*
+     * same rows read through jdbc cursor, to be consumed inside transaction and closed by caller
+     */
+    Stream<AdminPageRowDto> streamAdminRows(String parentCode, PageCursor cursor, int limit, int fetchSize);
+
+    Optional<AdminPageRowDto> findAdminRow(String code);
+
+    /*
+     * page id -> new sort key, written in one jdbc batch, cached pages are evicted
+     */
+    void updateSortKeys(Map<Long, Long> sortKeys);
+
+    /*
+     * new pages with parent and alias given by code, written in jdbc batches in given order,
+     * ids are assigned from pages sequence, paths extend paths of parents, which come first in the list
+     * or are already stored, bodies are written to page contents right after them
+     */
+    void insertPages(List<Page> pages);
+
+    /*
+     * code -> alias of code for page, its descendants and aliases of any of them,
+     * every subtree is read by one range of paths
+     */
+    Map<String, String> findSubtree(String code);
+
+    /*
+     * removes pages with their bodies in a few set based statements, codes have to be closed under children and aliases
+     */
+    int deletePages(Collection<String> codes);
+
+    /*
+     * row lock on page till the end of transaction
+     */
+    void lockPage(String code);
+
+    /*
+     * updates the row of moved page only, its descendants keep referring to it by code
+     */
+    void movePage(String code, String parentCode, long sortKey, Timestamp lastModified);
+
+    /*
+     * replaces path prefix of whole subtree in one statement, modification time of its pages is set as well,
+     * as their breadcrumbs change
+     */
+    void movePaths(String previousPath, String path, Timestamp lastModified);
+
+    /*
+     * id -> recent views, written in jdbc batches
+     */
+    void updatePopularity(Map<Long, Long> popularity);
+
+    /*
+     * pages whose container changed without change of their own rows, such as reordered children
+     */
+    void updateLastModified(Collection<String> codes, Timestamp lastModified);
+}
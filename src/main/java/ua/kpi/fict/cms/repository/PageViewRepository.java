@@ -0,0 +1,19 @@
+package ua.kpi.fict.cms.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ua.kpi.fict.cms.entity.PageView;
+import ua.kpi.fict.cms.entity.PageViewId;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface PageViewRepository extends JpaRepository<PageView, PageViewId>, PageViewRepositoryCustom {
+
+    /*
+     * page id -> views in both languages since given day, covered by date index
+     */
+    @Query("select v.id.pageId, sum(v.views) from PageView v where v.id.viewDate >= :since group by v.id.pageId")
+    List<Object[]> findViewsSince(@Param("since") LocalDate since);
+}
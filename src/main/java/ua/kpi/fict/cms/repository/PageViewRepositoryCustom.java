@@ -0,0 +1,14 @@
+package ua.kpi.fict.cms.repository;
+
+import ua.kpi.fict.cms.entity.enums.Language;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+public interface PageViewRepositoryCustom {
+
+    /*
+     * page id -> views counted since last flush, added to stored views of the day in jdbc batches
+     */
+    void addViews(LocalDate viewDate, Language language, Map<Long, Long> views);
+}
@@ -0,0 +1,431 @@
+package ua.kpi.fict.cms.repository.impl;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.annotations.QueryHints;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ua.kpi.fict.cms.dto.request.PageCursor;
+import ua.kpi.fict.cms.dto.response.AdminPageRowDto;
+import ua.kpi.fict.cms.entity.Page;
+import ua.kpi.fict.cms.entity.converter.CompressedTextConverter;
+import ua.kpi.fict.cms.repository.PageRepositoryCustom;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class PageRepositoryCustomImpl implements PageRepositoryCustom {
+
+    private static final int BATCH_SIZE = 500;
+    /*
+     * bound of in list in one statement
+     */
+    private static final int IN_LIST_SIZE = 1000;
+
+    private static final String INSERT_PAGE = "insert into pages (id, code, caption_ua, caption_en, intro_ua, intro_en, "
+            + "content_ua_length, content_en_length, image_url, creation_date, update_date, last_modified, parent_code, "
+            + "order_num, sort_key, order_type, container_type, alias_of, path) "
+            + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_CONTENT = "insert into page_contents (page_id, content_ua, content_en) values (?, ?, ?)";
+
+    private static final CompressedTextConverter CONTENT_CONVERTER = new CompressedTextConverter();
+
+    private static final String PAGE_ROLE = Page.class.getName();
+
+    private static final String PATH_SEPARATOR = "/";
+
+    private static final String ADMIN_ROW_QUERY = "select new ua.kpi.fict.cms.dto.response.AdminPageRowDto("
+            + "p.id, p.code, p.captionEn, p.captionUa, p.containerType, p.contentEnLength, p.contentUaLength, "
+            + "p.creationDate, p.imageUrl, p.introEn, p.introUa, p.orderNum, p.orderType, p.updateDate, "
+            + "p.sortKey, p.popularity, alias.code, parent.code) "
+            + "from Page p left join p.parentPage parent left join p.aliasOf alias ";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Page> findByCode(String code) {
+        if (code == null) {
+            return Optional.empty();
+        }
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Page.class)
+                .loadOptional(code);
+    }
+
+    @Override
+    public List<AdminPageRowDto> findAdminRows(String parentCode, PageCursor cursor, int limit) {
+        return createAdminRowsQuery(parentCode, cursor, limit).getResultList();
+    }
+
+    @Override
+    public Stream<AdminPageRowDto> streamAdminRows(String parentCode, PageCursor cursor, int limit, int fetchSize) {
+        return createAdminRowsQuery(parentCode, cursor, limit)
+                .setHint(QueryHints.FETCH_SIZE, fetchSize)
+                .setHint(QueryHints.READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private TypedQuery<AdminPageRowDto> createAdminRowsQuery(String parentCode, PageCursor cursor, int limit) {
+        String direction = cursor != null && cursor.isBackward() ? "desc" : "asc";
+        String comparison = cursor != null && cursor.isBackward() ? "<" : ">";
+
+        StringBuilder jpql = new StringBuilder(ADMIN_ROW_QUERY).append("where parent.code = :parentCode ");
+        if (cursor != null) {
+            jpql.append(String.format("and (p.sortKey %1$s :key or (p.sortKey = :key and p.id %1$s :id)) ", comparison));
+        }
+        jpql.append(String.format("order by p.sortKey %1$s, p.id %1$s", direction));
+
+        TypedQuery<AdminPageRowDto> query = entityManager.createQuery(jpql.toString(), AdminPageRowDto.class)
+                .setParameter("parentCode", parentCode)
+                .setMaxResults(limit);
+        if (cursor != null) {
+            query.setParameter("key", cursor.getKey());
+            query.setParameter("id", cursor.getId());
+        }
+        return query;
+    }
+
+    @Override
+    public Optional<AdminPageRowDto> findAdminRow(String code) {
+        return entityManager.createQuery(ADMIN_ROW_QUERY + "where p.code = :code", AdminPageRowDto.class)
+                .setParameter("code", code)
+                .getResultStream()
+                .findFirst();
+    }
+
+    @Transactional
+    @Override
+    public void updateSortKeys(Map<Long, Long> sortKeys) {
+        updateColumn("update pages set sort_key = ? where id = ?", sortKeys);
+    }
+
+    @Transactional
+    @Override
+    public void updatePopularity(Map<Long, Long> popularity) {
+        updateColumn("update pages set popularity = ? where id = ?", popularity);
+    }
+
+    private void updateColumn(String sql, Map<Long, Long> values) {
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                int pending = 0;
+                for (Map.Entry<Long, Long> value : values.entrySet()) {
+                    statement.setLong(1, value.getValue());
+                    statement.setLong(2, value.getKey());
+                    statement.addBatch();
+                    if (++pending == BATCH_SIZE) {
+                        statement.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    statement.executeBatch();
+                }
+            }
+        });
+        evictPages(new ArrayList<>(values.keySet()));
+    }
+
+    @Transactional
+    @Override
+    public void updateLastModified(Collection<String> codes, Timestamp lastModified) {
+        for (List<String> partition : partition(new ArrayList<>(codes))) {
+            entityManager.createNativeQuery("update pages set last_modified = :lastModified where code in (:codes)")
+                    .setParameter("lastModified", lastModified)
+                    .setParameter("codes", partition)
+                    .unwrap(NativeQuery.class)
+                    .addSynchronizedEntityClass(Page.class)
+                    .executeUpdate();
+        }
+    }
+
+    /*
+     * ids come from the same generator as for pages saved through hibernate, its pooled optimizer
+     * takes a block of ids per sequence call
+     */
+    @Transactional
+    @Override
+    public void insertPages(List<Page> pages) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        IdentifierGenerator idGenerator = session.getFactory().getMetamodel()
+                .entityPersister(Page.class)
+                .getIdentifierGenerator();
+        Map<String, String> paths = findPaths(pages);
+        for (Page page : pages) {
+            if (page.getId() == null) {
+                page.setId((Long) idGenerator.generate(session, page));
+            }
+            String parentPath = page.getParentPage() != null ? paths.get(page.getParentPage().getCode()) : null;
+            page.setPath((parentPath != null ? parentPath : PATH_SEPARATOR) + page.getId() + PATH_SEPARATOR);
+            paths.put(page.getCode(), page.getPath());
+            page.updateContentLengths();
+        }
+        session.doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_PAGE)) {
+                executeBatches(statement, pages, PageRepositoryCustomImpl::setInsertParameters);
+            }
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_CONTENT)) {
+                executeBatches(statement, pages, PageRepositoryCustomImpl::setContentParameters);
+            }
+        });
+        evictCollections();
+    }
+
+    /*
+     * stored paths of parents which are not inserted together with their children
+     */
+    private Map<String, String> findPaths(List<Page> pages) {
+        Set<String> insertedCodes = pages.stream().map(Page::getCode).collect(Collectors.toSet());
+        List<String> parentCodes = pages.stream()
+                .filter(page -> page.getParentPage() != null)
+                .map(page -> page.getParentPage().getCode())
+                .filter(parentCode -> !insertedCodes.contains(parentCode))
+                .distinct()
+                .collect(Collectors.toList());
+        Map<String, String> paths = new HashMap<>();
+        for (List<String> partition : partition(parentCodes)) {
+            List<?> rows = entityManager.createNativeQuery("select code, path from pages where code in (:codes)")
+                    .setParameter("codes", partition)
+                    .getResultList();
+            for (Object row : rows) {
+                Object[] columns = (Object[]) row;
+                paths.put((String) columns[0], (String) columns[1]);
+            }
+        }
+        return paths;
+    }
+
+    private static void executeBatches(PreparedStatement statement,
+                                       List<Page> pages,
+                                       StatementBinder binder) throws SQLException {
+        int pending = 0;
+        for (Page page : pages) {
+            binder.bind(statement, page);
+            statement.addBatch();
+            if (++pending == BATCH_SIZE) {
+                statement.executeBatch();
+                pending = 0;
+            }
+        }
+        if (pending > 0) {
+            statement.executeBatch();
+        }
+    }
+
+    /*
+     * one range of paths per subtree, then aliases pointing into collected pages, whose subtrees go next,
+     * usually two statements for page without outside aliases
+     */
+    @Override
+    public Map<String, String> findSubtree(String code) {
+        Map<String, String> subtree = new LinkedHashMap<>();
+        List<String> roots = List.of(code);
+        while (!roots.isEmpty()) {
+            List<String> collected = new ArrayList<>();
+            for (List<String> codes : partition(roots)) {
+                List<?> paths = entityManager.createNativeQuery("select path from pages where code in (:codes)")
+                        .setParameter("codes", codes)
+                        .getResultList();
+                for (Object path : paths) {
+                    List<?> rows = entityManager.createNativeQuery(
+                            "select code, alias_of from pages where path like :pattern")
+                            .setParameter("pattern", path + "%")
+                            .getResultList();
+                    collectSubtreeRows(rows, subtree, collected);
+                }
+            }
+            List<String> aliasRoots = new ArrayList<>();
+            for (List<String> codes : partition(collected)) {
+                List<?> aliasCodes = entityManager.createNativeQuery("select code from pages where alias_of in (:codes)")
+                        .setParameter("codes", codes)
+                        .getResultList();
+                for (Object aliasCode : aliasCodes) {
+                    if (!subtree.containsKey(aliasCode)) {
+                        aliasRoots.add((String) aliasCode);
+                    }
+                }
+            }
+            roots = aliasRoots;
+        }
+        return subtree;
+    }
+
+    private static void collectSubtreeRows(List<?> rows, Map<String, String> subtree, List<String> collected) {
+        for (Object row : rows) {
+            Object[] columns = (Object[]) row;
+            String code = (String) columns[0];
+            if (!subtree.containsKey(code)) {
+                subtree.put(code, (String) columns[1]);
+                collected.add(code);
+            }
+        }
+    }
+
+    /*
+     * references between removed pages are cleared first, so rows can go in any order,
+     * bulk statements also evict cached pages and their collections
+     */
+    @Transactional
+    @Override
+    public int deletePages(Collection<String> codes) {
+        List<List<String>> partitions = partition(new ArrayList<>(codes));
+        for (List<String> partition : partitions) {
+            entityManager.createQuery("update Page p set p.parentPage = null, p.aliasOf = null where p.code in :codes")
+                    .setParameter("codes", partition)
+                    .executeUpdate();
+        }
+        for (List<String> partition : partitions) {
+            entityManager.createQuery("delete from PageContent c "
+                    + "where c.pageId in (select p.id from Page p where p.code in :codes)")
+                    .setParameter("codes", partition)
+                    .executeUpdate();
+            entityManager.createQuery("delete from PageView v "
+                    + "where v.id.pageId in (select p.id from Page p where p.code in :codes)")
+                    .setParameter("codes", partition)
+                    .executeUpdate();
+        }
+        int deleted = 0;
+        for (List<String> partition : partitions) {
+            deleted += entityManager.createQuery("delete from Page p where p.code in :codes")
+                    .setParameter("codes", partition)
+                    .executeUpdate();
+        }
+        return deleted;
+    }
+
+    @Override
+    public void lockPage(String code) {
+        entityManager.createQuery("select p.id from Page p where p.code = :code")
+                .setParameter("code", code)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+    }
+
+    /*
+     * native update is synchronized with page regions only, other cached entities stay
+     */
+    @Transactional
+    @Override
+    public void movePage(String code, String parentCode, long sortKey, Timestamp lastModified) {
+        entityManager.createNativeQuery("update pages set parent_code = :parentCode, sort_key = :sortKey, "
+                + "last_modified = :lastModified where code = :code")
+                .setParameter("parentCode", parentCode)
+                .setParameter("sortKey", sortKey)
+                .setParameter("lastModified", lastModified)
+                .setParameter("code", code)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(Page.class)
+                .executeUpdate();
+    }
+
+    @Transactional
+    @Override
+    public void movePaths(String previousPath, String path, Timestamp lastModified) {
+        entityManager.createNativeQuery("update pages set path = concat(:path, substring(path, :previousLength + 1)), "
+                + "last_modified = :lastModified where path like :pattern")
+                .setParameter("path", path)
+                .setParameter("previousLength", previousPath.length())
+                .setParameter("lastModified", lastModified)
+                .setParameter("pattern", previousPath + "%")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(Page.class)
+                .executeUpdate();
+    }
+
+    private static List<List<String>> partition(List<String> codes) {
+        List<List<String>> partitions = new ArrayList<>();
+        for (int from = 0; from < codes.size(); from += IN_LIST_SIZE) {
+            partitions.add(codes.subList(from, Math.min(from + IN_LIST_SIZE, codes.size())));
+        }
+        return partitions;
+    }
+
+    private static void setInsertParameters(PreparedStatement statement, Page page) throws SQLException {
+        statement.setLong(1, page.getId());
+        statement.setString(2, page.getCode());
+        statement.setString(3, page.getCaptionUa());
+        statement.setString(4, page.getCaptionEn());
+        statement.setString(5, page.getIntroUa());
+        statement.setString(6, page.getIntroEn());
+        statement.setInt(7, page.getContentUaLength());
+        statement.setInt(8, page.getContentEnLength());
+        statement.setString(9, page.getImageUrl());
+        statement.setDate(10, page.getCreationDate());
+        statement.setDate(11, page.getUpdateDate());
+        statement.setTimestamp(12, page.getLastModified());
+        statement.setString(13, page.getParentPage() != null ? page.getParentPage().getCode() : null);
+        statement.setObject(14, page.getOrderNum(), Types.INTEGER);
+        statement.setObject(15, page.getSortKey(), Types.BIGINT);
+        statement.setString(16, page.getOrderType() != null ? page.getOrderType().name() : null);
+        statement.setString(17, page.getContainerType() != null ? page.getContainerType().name() : null);
+        statement.setString(18, page.getAliasOf() != null ? page.getAliasOf().getCode() : null);
+        statement.setString(19, page.getPath());
+    }
+
+    private static void setContentParameters(PreparedStatement statement, Page page) throws SQLException {
+        statement.setLong(1, page.getId());
+        statement.setBytes(2, CONTENT_CONVERTER.convertToDatabaseColumn(page.getContentUa()));
+        statement.setBytes(3, CONTENT_CONVERTER.convertToDatabaseColumn(page.getContentEn()));
+    }
+
+    /*
+     * cached children and aliases collections of existing pages miss the inserted rows,
+     * they are keyed by code of the owner, so whole regions are evicted, now and after commit
+     */
+    private void evictCollections() {
+        SessionFactory sessionFactory = entityManager.unwrap(Session.class).getSessionFactory();
+        runNowAndAfterCommit(() -> {
+            sessionFactory.getCache().evictCollectionData(PAGE_ROLE + ".childPages");
+            sessionFactory.getCache().evictCollectionData(PAGE_ROLE + ".aliases");
+        });
+    }
+
+    /*
+     * jdbc batch goes around hibernate, so cached pages are evicted now and once more after commit,
+     * when a concurrent reader could have cached the previous state again
+     */
+    private void evictPages(Collection<Long> ids) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        runNowAndAfterCommit(() -> ids.forEach(id -> cache.evict(Page.class, id)));
+    }
+
+    private static void runNowAndAfterCommit(Runnable action) {
+        action.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    private interface StatementBinder {
+
+        void bind(PreparedStatement statement, Page page) throws SQLException;
+    }
+}
@@ -0,0 +1,50 @@
+package ua.kpi.fict.cms.repository.impl;
+
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+import ua.kpi.fict.cms.entity.enums.Language;
+import ua.kpi.fict.cms.repository.PageViewRepositoryCustom;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.Map;
+
+public class PageViewRepositoryCustomImpl implements PageViewRepositoryCustom {
+
+    private static final int BATCH_SIZE = 500;
+    /*
+     * mysql upsert, row of the day is created by first flush and incremented by next ones
+     */
+    private static final String ADD_VIEWS = "insert into page_views (page_id, language, view_date, views) "
+            + "values (?, ?, ?, ?) on duplicate key update views = views + values(views)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional
+    @Override
+    public void addViews(LocalDate viewDate, Language language, Map<Long, Long> views) {
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(ADD_VIEWS)) {
+                int pending = 0;
+                for (Map.Entry<Long, Long> pageViews : views.entrySet()) {
+                    statement.setLong(1, pageViews.getKey());
+                    statement.setString(2, language.name());
+                    statement.setDate(3, Date.valueOf(viewDate));
+                    statement.setLong(4, pageViews.getValue());
+                    statement.addBatch();
+                    if (++pending == BATCH_SIZE) {
+                        statement.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    statement.executeBatch();
+                }
+            }
+        });
+    }
+}
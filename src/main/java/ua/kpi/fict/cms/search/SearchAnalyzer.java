@@ -0,0 +1,181 @@
+package ua.kpi.fict.cms.search;
+
+import ua.kpi.fict.cms.entity.enums.Language;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+ * turns page text and search queries into index terms : markup is stripped, words are lowercased
+ * with rules of their language, stop words are dropped and endings are cut by light stemmers,
+ * so "pages" finds "page" and "сторінки" finds "сторінка"
+ */
+public final class SearchAnalyzer {
+
+    private static final Locale UA_LOCALE = new Locale("uk", "UA");
+
+    private static final Pattern INVISIBLE_ELEMENT = Pattern.compile(
+            "<(script|style)\\b[^>]*>.*?</\\1\\s*>", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    private static final Pattern TAG = Pattern.compile("<!--.*?-->|<[^>]*>", Pattern.DOTALL);
+
+    private static final Pattern ENTITY = Pattern.compile("&(#\\d{1,7}|#[xX][0-9a-fA-F]{1,6}|[a-zA-Z]+);");
+
+    private static final Map<String, String> NAMED_ENTITIES = Map.of(
+            "amp", "&", "lt", "<", "gt", ">", "quot", "\"", "apos", "'",
+            "nbsp", " ", "laquo", "«", "raquo", "»", "mdash", "—", "ndash", "–");
+
+    private static final int MIN_STEM_LENGTH = 3;
+
+    private static final Set<String> EN_STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it", "of", "on", "or",
+            "that", "the", "this", "to", "was", "were", "with");
+
+    private static final Set<String> UA_STOP_WORDS = Set.of(
+            "а", "але", "в", "від", "до", "з", "за", "і", "із", "й", "на", "не", "по", "під", "та", "то", "у",
+            "це", "що", "як", "для", "або", "зі");
+    /*
+     * noun, adjective and verb endings, longest first, only the first one that leaves long enough stem is cut
+     */
+    private static final List<String> UA_ENDINGS = List.of(
+            "ського", "ському", "ськими",
+            "ами", "ями", "ові", "еві", "ого", "ому", "ими", "іми",
+            "ій", "их", "іх", "ої", "ою", "ею", "ом", "ем", "ам", "ям", "ах", "ях", "ий", "ів", "ей",
+            "ти", "ть", "ла", "ли", "ло",
+            "а", "я", "о", "е", "у", "ю", "і", "и", "ї", "ь");
+
+    private SearchAnalyzer() {
+    }
+
+    /*
+     * text between tags, entities decoded, contents of scripts and styles dropped
+     */
+    public static String stripHtml(String html) {
+        if (html == null || html.isEmpty()) {
+            return "";
+        }
+        String text = INVISIBLE_ELEMENT.matcher(html).replaceAll(" ");
+        text = TAG.matcher(text).replaceAll(" ");
+        if (text.indexOf('&') < 0) {
+            return text;
+        }
+        Matcher matcher = ENTITY.matcher(text);
+        StringBuilder builder = new StringBuilder(text.length());
+        while (matcher.find()) {
+            matcher.appendReplacement(builder, Matcher.quoteReplacement(decodeEntity(matcher.group(1), matcher.group())));
+        }
+        matcher.appendTail(builder);
+        return builder.toString();
+    }
+
+    private static String decodeEntity(String entity, String original) {
+        if (entity.charAt(0) != '#') {
+            return NAMED_ENTITIES.getOrDefault(entity.toLowerCase(Locale.ROOT), original);
+        }
+        try {
+            int codePoint = entity.charAt(1) == 'x' || entity.charAt(1) == 'X'
+                    ? Integer.parseInt(entity.substring(2), 16)
+                    : Integer.parseInt(entity.substring(1));
+            return Character.isValidCodePoint(codePoint)
+                    ? new String(Character.toChars(codePoint))
+                    : " ";
+        } catch (NumberFormatException e) {
+            return original;
+        }
+    }
+
+    /*
+     * terms in order of their appearance, repeated terms are kept, so caller can count them
+     */
+    public static List<String> analyze(String text, Language language) {
+        if (text == null || text.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String lowerCased = text.toLowerCase(language == Language.UA ? UA_LOCALE : Locale.ENGLISH);
+        List<String> terms = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < lowerCased.length(); ) {
+            int codePoint = lowerCased.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (Character.isLetterOrDigit(codePoint)) {
+                word.appendCodePoint(codePoint);
+            } else if (isApostrophe(codePoint) && word.length() > 0) {
+                /*
+                 * "п'ять", "пʼять" and "don't" are single words, apostrophe itself is not kept
+                 */
+                continue;
+            } else {
+                addTerm(terms, word, language);
+            }
+        }
+        addTerm(terms, word, language);
+        return terms;
+    }
+
+    private static boolean isApostrophe(int codePoint) {
+        return codePoint == '\'' || codePoint == '’' || codePoint == 'ʼ' || codePoint == '`';
+    }
+
+    private static void addTerm(List<String> terms, StringBuilder word, Language language) {
+        if (word.length() == 0) {
+            return;
+        }
+        String term = word.toString();
+        word.setLength(0);
+        if (language == Language.UA) {
+            if (!UA_STOP_WORDS.contains(term)) {
+                terms.add(stemUa(term.replace('ґ', 'г')));
+            }
+        } else if (!EN_STOP_WORDS.contains(term)) {
+            terms.add(stemEn(term));
+        }
+    }
+
+    /*
+     * plural and most common verb forms only, aggressive stemmers merge unrelated words of short pages
+     */
+    private static String stemEn(String term) {
+        if (isNumber(term)) {
+            return term;
+        }
+        if (term.endsWith("ies") && term.length() > 4) {
+            return term.substring(0, term.length() - 3) + "y";
+        }
+        if (term.endsWith("sses")) {
+            return term.substring(0, term.length() - 2);
+        }
+        if (term.endsWith("s") && term.length() > 3
+                && !term.endsWith("ss") && !term.endsWith("us") && !term.endsWith("is")) {
+            return term.substring(0, term.length() - 1);
+        }
+        if (term.endsWith("ing") && term.length() > 5) {
+            return term.substring(0, term.length() - 3);
+        }
+        if (term.endsWith("ed") && term.length() > 4) {
+            return term.substring(0, term.length() - 2);
+        }
+        return term;
+    }
+
+    private static String stemUa(String term) {
+        if (isNumber(term)) {
+            return term;
+        }
+        for (String ending : UA_ENDINGS) {
+            if (term.endsWith(ending) && term.length() - ending.length() >= MIN_STEM_LENGTH) {
+                return term.substring(0, term.length() - ending.length());
+            }
+        }
+        return term;
+    }
+
+    private static boolean isNumber(String term) {
+        return Character.isDigit(term.codePointAt(0));
+    }
+}
@@ -0,0 +1,53 @@
+package ua.kpi.fict.cms.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ua.kpi.fict.cms.entity.Page;
+import ua.kpi.fict.cms.entity.enums.Language;
+
+/*
+ * searchable text of one page, read without its associations
+ */
+@Getter
+@AllArgsConstructor
+public class SearchDocument {
+
+    private final Long id;
+
+    private final String code;
+
+    private final String captionUa;
+
+    private final String captionEn;
+
+    private final String introUa;
+
+    private final String introEn;
+
+    private final String contentUa;
+
+    private final String contentEn;
+
+    public static SearchDocument of(Page page) {
+        return new SearchDocument(page.getId(), page.getCode(), page.getCaptionUa(), page.getCaptionEn(),
+                page.getIntroUa(), page.getIntroEn(), page.getContentUa(), page.getContentEn());
+    }
+
+    public String getCaption(Language language) {
+        return language == Language.UA
+                ? captionUa
+                : captionEn;
+    }
+
+    public String getIntro(Language language) {
+        return language == Language.UA
+                ? introUa
+                : introEn;
+    }
+
+    public String getContent(Language language) {
+        return language == Language.UA
+                ? contentUa
+                : contentEn;
+    }
+}
@@ -0,0 +1,134 @@
+package ua.kpi.fict.cms.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+ * inverted index of one language : term -> page code -> weighted frequency, where words of caption and intro
+ * count more than words of content, pages are ranked by bm25 over these frequencies
+ */
+public class SearchIndex {
+
+    private static final double K1 = 1.2;
+
+    private static final double B = 0.75;
+
+    private final Map<String, Map<String, Float>> postings = new HashMap<>();
+    /*
+     * terms of every page, so page is removed from its postings without scanning the whole index
+     */
+    private final Map<String, Map<String, Float>> documents = new HashMap<>();
+
+    private final Map<String, Float> lengths = new HashMap<>();
+
+    private double totalLength;
+    /*
+     * many concurrent searches, rare single page writes
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /*
+     * replaces previous terms of the page
+     */
+    public void put(String code, Map<String, Float> terms) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(code);
+            if (terms.isEmpty()) {
+                return;
+            }
+            float length = 0;
+            for (Map.Entry<String, Float> term : terms.entrySet()) {
+                postings.computeIfAbsent(term.getKey(), key -> new HashMap<>()).put(code, term.getValue());
+                length += term.getValue();
+            }
+            documents.put(code, terms);
+            lengths.put(code, length);
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String code) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(code);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeDocument(String code) {
+        Map<String, Float> terms = documents.remove(code);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms.keySet()) {
+            Map<String, Float> codes = postings.get(term);
+            codes.remove(code);
+            if (codes.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= lengths.remove(code);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /*
+     * pages holding all given terms, best first, equal scores ordered by code so pagination is stable
+     */
+    public List<SearchMatch> search(List<String> terms) {
+        List<SearchMatch> matches = new ArrayList<>();
+        if (terms.isEmpty()) {
+            return matches;
+        }
+        lock.readLock().lock();
+        try {
+            List<Map<String, Float>> termPostings = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Map<String, Float> codes = postings.get(term);
+                if (codes == null) {
+                    return matches;
+                }
+                termPostings.add(codes);
+            }
+            /*
+             * candidates come from the rarest term, the others are only probed
+             */
+            Map<String, Float> rarest = termPostings.stream().min(Comparator.comparingInt(Map::size)).orElseThrow();
+            double averageLength = totalLength / documents.size();
+            candidates:
+            for (String code : rarest.keySet()) {
+                double score = 0;
+                double length = lengths.get(code);
+                for (Map<String, Float> codes : termPostings) {
+                    Float frequency = codes.get(code);
+                    if (frequency == null) {
+                        continue candidates;
+                    }
+                    double idf = Math.log(1 + (documents.size() - codes.size() + 0.5) / (codes.size() + 0.5));
+                    score += idf * frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * length / averageLength));
+                }
+                matches.add(new SearchMatch(code, score));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        matches.sort(Comparator.comparingDouble(SearchMatch::getScore).reversed().thenComparing(SearchMatch::getCode));
+        return matches;
+    }
+}
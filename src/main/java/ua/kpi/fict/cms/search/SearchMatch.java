@@ -0,0 +1,13 @@
+package ua.kpi.fict.cms.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class SearchMatch {
+
+    private final String code;
+
+    private final double score;
+}
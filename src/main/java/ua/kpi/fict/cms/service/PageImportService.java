@@ -0,0 +1,12 @@
+package ua.kpi.fict.cms.service;
+
+import ua.kpi.fict.cms.dto.response.PageImportDto;
+import ua.kpi.fict.cms.imports.PageImportFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface PageImportService {
+
+    PageImportDto importPages(InputStream input, PageImportFormat format) throws IOException;
+}
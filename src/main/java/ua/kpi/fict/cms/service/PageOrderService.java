@@ -0,0 +1,10 @@
+package ua.kpi.fict.cms.service;
+
+import ua.kpi.fict.cms.entity.enums.OrderType;
+
+public interface PageOrderService {
+
+    void reorderChildren(String parentCode, OrderType orderType);
+
+    void reconcile();
+}
@@ -0,0 +1,9 @@
+package ua.kpi.fict.cms.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface PageRowService {
+
+    void writeRows(String parentCode, String cursor, Integer size, OutputStream out) throws IOException;
+}
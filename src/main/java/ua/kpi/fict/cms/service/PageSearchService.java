@@ -0,0 +1,21 @@
+package ua.kpi.fict.cms.service;
+
+import ua.kpi.fict.cms.dto.response.PageDto;
+import ua.kpi.fict.cms.dto.response.SearchResultDto;
+import ua.kpi.fict.cms.entity.Page;
+import ua.kpi.fict.cms.entity.enums.Language;
+
+import java.util.Set;
+
+public interface PageSearchService {
+
+    SearchResultDto search(String query, Language language, Integer page, Integer size);
+
+    PageDto renderResults(String query, Language language, Integer page);
+
+    void indexPage(Page page);
+
+    void removePages(Set<String> codes);
+
+    void rebuild();
+}
@@ -1,14 +1,25 @@
 package ua.kpi.fict.cms.service;
 
+import ua.kpi.fict.cms.cache.PageDocument;
 import ua.kpi.fict.cms.dto.response.AdminPanelPageDto;
+import ua.kpi.fict.cms.dto.response.PageDeleteDto;
 import ua.kpi.fict.cms.dto.response.PageDto;
+import ua.kpi.fict.cms.dto.response.PageMoveDto;
+import ua.kpi.fict.cms.dto.response.PageValidatorDto;
 import ua.kpi.fict.cms.entity.MessageType;
 import ua.kpi.fict.cms.entity.Page;
 import ua.kpi.fict.cms.entity.enums.Language;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.List;
+import java.util.Set;
 
 public interface PageService {
+    /*
+     * public urls of these codes are taken by other endpoints, "/search", "/en", so pages can not have them
+     */
+    Set<String> RESERVED_CODES = Set.of("search", "en", "favicon.ico");
 
     List<Page> findChildPages(String parentCode);
 
@@ -18,7 +29,15 @@ public interface PageService {
 
     void delete(Page page);
 
-    AdminPanelPageDto getIndexPage(String parentCode, Language language, MessageType messageType);
+    PageDeleteDto deleteSubtree(String code, boolean dryRun);
+
+    PageMoveDto movePage(String code, String parentCode);
+
+    AdminPanelPageDto getIndexPage(String parentCode,
+                                   String cursor,
+                                   Integer size,
+                                   Language language,
+                                   MessageType messageType);
 
     AdminPanelPageDto getCreatePage(Language language);
 
@@ -26,7 +45,19 @@ public interface PageService {
 
     Page findPageByCode(String pageCode);
 
+    Page findPageWithContent(String pageCode);
+
     String purifyPageCode(String pageCode);
 
     PageDto render(Language language, String pageCode);
+
+    PageDocument renderDocument(Language language, String pageCode);
+
+    boolean isStreamed(String pageCode);
+
+    PageValidatorDto getPageValidator(Language language, String pageCode);
+
+    PageValidatorDto getIndexValidator(Language language);
+
+    void render(Language language, String pageCode, Writer writer) throws IOException;
 }
@@ -0,0 +1,27 @@
+package ua.kpi.fict.cms.service;
+
+import ua.kpi.fict.cms.tree.PageNode;
+import ua.kpi.fict.cms.tree.PageTree;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+public interface PageTreeService {
+
+    PageTree getTree();
+
+    void load();
+
+    void rebuild();
+
+    void writeSnapshot();
+
+    void putPage(PageNode node);
+
+    void putPages(Collection<PageNode> nodes);
+
+    void updatePages(Set<String> codes, UnaryOperator<PageNode> update);
+
+    void removePages(Set<String> codes);
+}
@@ -0,0 +1,17 @@
+package ua.kpi.fict.cms.service;
+
+import ua.kpi.fict.cms.dto.response.PageViewDto;
+import ua.kpi.fict.cms.entity.enums.Language;
+
+import java.util.List;
+
+public interface PageViewService {
+
+    void recordView(String pageCode, Language language);
+
+    void flush();
+
+    void refreshPopularity();
+
+    List<PageViewDto> findPopularPages(Integer limit);
+}
@@ -0,0 +1,8 @@
+package ua.kpi.fict.cms.service;
+
+import ua.kpi.fict.cms.dto.response.SiteExportDto;
+
+public interface SiteExportService {
+
+    SiteExportDto export(boolean force);
+}
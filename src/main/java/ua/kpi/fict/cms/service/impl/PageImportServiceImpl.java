@@ -0,0 +1,334 @@
+package ua.kpi.fict.cms.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.kpi.fict.cms.cache.PageRenderCache;
+import ua.kpi.fict.cms.dto.request.PageImportRow;
+import ua.kpi.fict.cms.dto.response.PageImportDto;
+import ua.kpi.fict.cms.dto.response.PageImportErrorDto;
+import ua.kpi.fict.cms.entity.Page;
+import ua.kpi.fict.cms.entity.enums.OrderType;
+import ua.kpi.fict.cms.imports.PageImportFormat;
+import ua.kpi.fict.cms.imports.PageImportReader;
+import ua.kpi.fict.cms.repository.PageRepository;
+import ua.kpi.fict.cms.service.PageImportService;
+import ua.kpi.fict.cms.service.PageService;
+import ua.kpi.fict.cms.service.PageSearchService;
+import ua.kpi.fict.cms.service.PageTreeService;
+import ua.kpi.fict.cms.tree.PageNode;
+import ua.kpi.fict.cms.tree.PageTree;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/*
+ * pages of one import are checked against each other and the page tree in memory, written parents first
+ * in jdbc batches, one transaction per chunk, rows which fail are reported and the rest goes on
+ */
+@RequiredArgsConstructor
+@Log4j2
+@Service
+public class PageImportServiceImpl implements PageImportService {
+
+    private final PageImportReader pageImportReader;
+
+    private final PageRepository pageRepository;
+
+    private final PageTreeService pageTreeService;
+
+    private final PageRenderCache renderCache;
+
+    private final PageSearchService pageSearchService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${cms.import.chunk-size}")
+    private int chunkSize;
+
+    @Override
+    public PageImportDto importPages(InputStream input, PageImportFormat format) throws IOException {
+        long start = System.currentTimeMillis();
+        List<PageImportErrorDto> errors = new ArrayList<>();
+        List<PageImportRow> rows = pageImportReader.read(input, format, errors);
+
+        Import pageImport = new Import(pageTreeService.getTree(), errors);
+        List<PageImportRow> orderedRows = pageImport.sortByDependencies(pageImport.collectValidRows(rows));
+        for (int from = 0; from < orderedRows.size(); from += chunkSize) {
+            pageImport.importChunk(orderedRows.subList(from, Math.min(from + chunkSize, orderedRows.size())));
+        }
+        /*
+         * snapshot and render cache follow every committed chunk, one search index rebuild is cheaper
+         * than analyzing every imported page on its own
+         */
+        if (!pageImport.importedCodes.isEmpty()) {
+            pageSearchService.rebuild();
+        }
+
+        errors.sort(Comparator.comparingInt(PageImportErrorDto::getLine));
+        PageImportDto result = PageImportDto.builder()
+                .imported(pageImport.importedCodes.size())
+                .failed(errors.size())
+                .errors(errors)
+                .durationMillis(System.currentTimeMillis() - start)
+                .build();
+        log.info("Pages imported from {} : {} imported, {} failed in {} ms",
+                format, result.getImported(), result.getFailed(), result.getDurationMillis());
+        return result;
+    }
+
+    /*
+     * state of one import run
+     */
+    private class Import {
+
+        private final PageTree tree;
+
+        private final List<PageImportErrorDto> errors;
+
+        private final Map<String, PageImportRow> rowsByCode = new LinkedHashMap<>();
+
+        private final Set<String> importedCodes = new HashSet<>();
+
+        /*
+         * pages of current chunk which are committed, not yet put in snapshot
+         */
+        private final List<PageNode> committedNodes = new ArrayList<>();
+        /*
+         * committed pages of current chunk and parents whose child container got new pages
+         */
+        private final Set<String> affectedCodes = new HashSet<>();
+
+        private Import(PageTree tree, List<PageImportErrorDto> errors) {
+            this.tree = tree;
+            this.errors = errors;
+        }
+
+        private Map<String, PageImportRow> collectValidRows(List<PageImportRow> rows) {
+            for (PageImportRow row : rows) {
+                String code = row.getCode();
+                if (code == null || code.isBlank()) {
+                    reject(row, "Page code is missing");
+                } else if (rowsByCode.containsKey(code)) {
+                    reject(row, "Page code is repeated, first defined on line " + rowsByCode.get(code).getLine());
+                } else if (PageService.RESERVED_CODES.contains(code)) {
+                    reject(row, "Page code is reserved");
+                } else if (tree.contains(code)) {
+                    reject(row, "Page already exists");
+                } else if (!getMissingFields(row).isEmpty()) {
+                    reject(row, "Missing values of fields : " + getMissingFields(row));
+                } else {
+                    rowsByCode.put(code, row);
+                }
+            }
+            return rowsByCode;
+        }
+
+        /*
+         * parents and alias targets go before pages referring to them, in order of the stream otherwise,
+         * pages left over are part of a reference cycle or depend on one
+         */
+        private List<PageImportRow> sortByDependencies(Map<String, PageImportRow> rows) {
+            Map<String, List<PageImportRow>> dependents = new HashMap<>();
+            Map<String, Integer> unresolved = new HashMap<>();
+            Deque<PageImportRow> ready = new ArrayDeque<>();
+            for (PageImportRow row : rows.values()) {
+                int count = 0;
+                for (String dependency : getDependencies(row)) {
+                    if (rows.containsKey(dependency)) {
+                        dependents.computeIfAbsent(dependency, code -> new ArrayList<>()).add(row);
+                        count++;
+                    }
+                }
+                unresolved.put(row.getCode(), count);
+                if (count == 0) {
+                    ready.add(row);
+                }
+            }
+            List<PageImportRow> ordered = new ArrayList<>(rows.size());
+            while (!ready.isEmpty()) {
+                PageImportRow row = ready.poll();
+                ordered.add(row);
+                for (PageImportRow dependent : dependents.getOrDefault(row.getCode(), List.of())) {
+                    if (unresolved.merge(dependent.getCode(), -1, Integer::sum) == 0) {
+                        ready.add(dependent);
+                    }
+                }
+            }
+            if (ordered.size() < rows.size()) {
+                rows.values().stream()
+                        .filter(row -> unresolved.get(row.getCode()) > 0)
+                        .forEach(row -> reject(row, "Parent or alias references of page form a cycle"));
+            }
+            return ordered;
+        }
+
+        /*
+         * whole chunk goes in one batch, when it fails its pages are retried one by one to find the broken ones
+         */
+        private void importChunk(List<PageImportRow> chunk) {
+            Set<String> chunkCodes = new HashSet<>();
+            List<PageImportRow> acceptedRows = new ArrayList<>();
+            List<Page> pages = new ArrayList<>();
+            for (PageImportRow row : chunk) {
+                if (checkDependencies(row, chunkCodes)) {
+                    chunkCodes.add(row.getCode());
+                    acceptedRows.add(row);
+                    pages.add(toPage(row));
+                }
+            }
+            if (pages.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> pageRepository.insertPages(pages));
+                for (int i = 0; i < pages.size(); i++) {
+                    markImported(acceptedRows.get(i), pages.get(i));
+                }
+            } catch (RuntimeException e) {
+                log.warn("Import of {} pages failed as a batch, importing them one by one", pages.size(), e);
+                for (int i = 0; i < pages.size(); i++) {
+                    importSingle(acceptedRows.get(i), pages.get(i));
+                }
+            }
+            publishCommitted();
+        }
+
+        /*
+         * committed pages become reachable right away, not after the whole import, and stay so
+         * when a later chunk fails
+         */
+        private void publishCommitted() {
+            if (committedNodes.isEmpty()) {
+                return;
+            }
+            pageTreeService.putPages(new ArrayList<>(committedNodes));
+            renderCache.evict(new HashSet<>(affectedCodes));
+            committedNodes.clear();
+            affectedCodes.clear();
+        }
+
+        private void importSingle(PageImportRow row, Page page) {
+            if (!checkDependencies(row, Set.of())) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> pageRepository.insertPages(List.of(page)));
+                markImported(row, page);
+            } catch (RuntimeException e) {
+                reject(row, "Page was not stored : " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            }
+        }
+
+        /*
+         * referred page has to be imported before, be stored already, or come earlier in the same chunk
+         */
+        private boolean checkDependencies(PageImportRow row, Set<String> chunkCodes) {
+            for (String dependency : getDependencies(row)) {
+                if (importedCodes.contains(dependency) || chunkCodes.contains(dependency)) {
+                    continue;
+                }
+                if (rowsByCode.containsKey(dependency)) {
+                    reject(row, "Referred page " + dependency + " was not imported");
+                    return false;
+                }
+                if (!tree.contains(dependency)) {
+                    reject(row, "Referred page " + dependency + " does not exist");
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void markImported(PageImportRow row, Page page) {
+            importedCodes.add(row.getCode());
+            committedNodes.add(PageNode.of(page));
+            affectedCodes.add(row.getCode());
+            affectedCodes.add(row.getParentCode());
+        }
+
+        private Page toPage(PageImportRow row) {
+            long now = System.currentTimeMillis();
+            Page page = Page.builder()
+                    .code(row.getCode())
+                    .captionUa(row.getCaptionUa())
+                    .captionEn(row.getCaptionEn())
+                    .introUa(row.getIntroUa())
+                    .introEn(row.getIntroEn())
+                    .contentUa(row.getContentUa())
+                    .contentEn(row.getContentEn())
+                    .imageUrl(row.getImageUrl())
+                    .creationDate(new Date(now))
+                    .updateDate(new Date(now))
+                    .lastModified(new Timestamp(now))
+                    .orderNum(row.getOrderNum())
+                    .orderType(row.getOrderType())
+                    .containerType(row.getContainerType())
+                    .parentPage(Page.builder().code(row.getParentCode()).build())
+                    .aliasOf(row.getAliasOf() != null ? Page.builder().code(row.getAliasOf()).build() : null)
+                    .build();
+            page.setSortKey(OrderType.of(getParentOrderType(row.getParentCode())).getSortKey(page));
+            return page;
+        }
+
+        private OrderType getParentOrderType(String parentCode) {
+            PageImportRow parentRow = rowsByCode.get(parentCode);
+            if (parentRow != null) {
+                return parentRow.getOrderType();
+            }
+            PageNode parentNode = tree.getPage(parentCode);
+            return parentNode != null ? parentNode.getOrderType() : null;
+        }
+
+        private void reject(PageImportRow row, String message) {
+            errors.add(new PageImportErrorDto(row.getLine(), row.getCode(), message));
+        }
+    }
+
+    private static List<String> getDependencies(PageImportRow row) {
+        List<String> dependencies = new ArrayList<>(2);
+        dependencies.add(row.getParentCode());
+        if (row.getAliasOf() != null) {
+            dependencies.add(row.getAliasOf());
+        }
+        return dependencies;
+    }
+
+    /*
+     * same fields are required as by pages table, parent keeps imported page reachable
+     */
+    private static String getMissingFields(PageImportRow row) {
+        StringJoiner missing = new StringJoiner(", ");
+        addIfMissing(missing, "parentCode", row.getParentCode());
+        addIfMissing(missing, "captionUa", row.getCaptionUa());
+        addIfMissing(missing, "captionEn", row.getCaptionEn());
+        addIfMissing(missing, "introUa", row.getIntroUa());
+        addIfMissing(missing, "introEn", row.getIntroEn());
+        addIfMissing(missing, "contentUa", row.getContentUa());
+        addIfMissing(missing, "contentEn", row.getContentEn());
+        addIfMissing(missing, "imageUrl", row.getImageUrl());
+        return missing.toString();
+    }
+
+    private static void addIfMissing(StringJoiner missing, String field, String value) {
+        if (value == null) {
+            missing.add(field);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package ua.kpi.fict.cms.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import ua.kpi.fict.cms.entity.enums.OrderType;
+import ua.kpi.fict.cms.repository.PageRepository;
+import ua.kpi.fict.cms.service.PageOrderService;
+import ua.kpi.fict.cms.service.PageTreeService;
+import ua.kpi.fict.cms.tree.PageNode;
+import ua.kpi.fict.cms.tree.PageTree;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+@RequiredArgsConstructor
+@Log4j2
+@Service
+public class PageOrderServiceImpl implements PageOrderService {
+
+    private final PageRepository pageRepository;
+
+    private final PageTreeService pageTreeService;
+
+    /*
+     * sort keys of all children are rewritten when parent order type changes
+     */
+    @Override
+    public void reorderChildren(String parentCode, OrderType orderType) {
+        Map<Long, Long> sortKeys = new HashMap<>();
+        for (PageNode child : pageTreeService.getTree().getChildren(parentCode)) {
+            sortKeys.put(child.getId(), OrderType.of(orderType).getSortKey(child));
+        }
+        if (!sortKeys.isEmpty()) {
+            pageRepository.updateSortKeys(sortKeys);
+            log.info("Sort keys of {} children of page {} updated for order type : {}",
+                    sortKeys.size(), parentCode, orderType);
+        }
+    }
+
+    /*
+     * fills sort keys of pages stored before they were maintained, or changed outside of application
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Override
+    public void reconcile() {
+        PageTree tree = pageTreeService.getTree();
+        Map<Long, Long> sortKeys = new HashMap<>();
+        for (Object[] storedSortKey : pageRepository.findAllSortKeys()) {
+            PageNode node = tree.getPage((String) storedSortKey[0]);
+            if (node == null) {
+                continue;
+            }
+            PageNode parent = tree.getPage(node.getParentCode());
+            long sortKey = OrderType.of(parent != null ? parent.getOrderType() : null).getSortKey(node);
+            if (!Objects.equals(storedSortKey[1], sortKey)) {
+                sortKeys.put(node.getId(), sortKey);
+            }
+        }
+        if (!sortKeys.isEmpty()) {
+            pageRepository.updateSortKeys(sortKeys);
+        }
+        log.info("Sort keys reconciled, {} pages updated", sortKeys.size());
+    }
+}
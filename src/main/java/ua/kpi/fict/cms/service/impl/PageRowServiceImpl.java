@@ -0,0 +1,124 @@
+package ua.kpi.fict.cms.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ua.kpi.fict.cms.dto.request.PageCursor;
+import ua.kpi.fict.cms.dto.response.AdminPageRowDto;
+import ua.kpi.fict.cms.repository.PageRepository;
+import ua.kpi.fict.cms.service.PageRowService;
+import ua.kpi.fict.cms.service.PageTreeService;
+import ua.kpi.fict.cms.tree.PageTree;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/*
+ * rows of admin listing as json, written to the response one by one as they are read from jdbc cursor,
+ * children counts come from the snapshot, so no other query is made
+ */
+@Log4j2
+@Service
+public class PageRowServiceImpl implements PageRowService {
+
+    private static final String ROOT_CODE = "root";
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final PageRepository pageRepository;
+
+    private final PageTreeService pageTreeService;
+    /*
+     * response is flushed by servlet buffer, not after every row
+     */
+    private final ObjectWriter rowWriter;
+
+    @Value("${cms.admin.page-size}")
+    private int defaultPageSize;
+
+    @Value("${cms.admin.fetch-size}")
+    private int fetchSize;
+
+    public PageRowServiceImpl(PageRepository pageRepository, PageTreeService pageTreeService, ObjectMapper objectMapper) {
+        this.pageRepository = pageRepository;
+        this.pageTreeService = pageTreeService;
+        this.rowWriter = objectMapper.writerFor(AdminPageRowDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /*
+     * same slice as admin index shows : children of known parent after (or before) cursor, root page alone
+     * otherwise, one row more is read to know whether next slice exists
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public void writeRows(String parentCode, String cursor, Integer size, OutputStream out) throws IOException {
+        int pageSize = size != null && size > 0 ? Math.min(size, MAX_PAGE_SIZE) : defaultPageSize;
+        PageCursor pageCursor = PageCursor.decode(cursor);
+        boolean backward = pageCursor != null && pageCursor.isBackward();
+        PageTree tree = pageTreeService.getTree();
+        boolean knownParent = parentCode != null && tree.contains(parentCode);
+
+        try (JsonGenerator generator = rowWriter.getFactory().createGenerator(out);
+             Stream<AdminPageRowDto> rows = knownParent
+                     ? pageRepository.streamAdminRows(parentCode, pageCursor, pageSize + 1, fetchSize)
+                     : pageRepository.findAdminRow(ROOT_CODE).stream()) {
+
+            generator.writeStartObject();
+            generator.writeStringField("parentCode", knownParent ? parentCode : null);
+            generator.writeArrayFieldStart("rows");
+
+            Iterator<AdminPageRowDto> iterator = rows.iterator();
+            boolean hasMore = false;
+            if (backward) {
+                List<AdminPageRowDto> slice = new ArrayList<>(pageSize + 1);
+                while (iterator.hasNext() && slice.size() <= pageSize) {
+                    slice.add(iterator.next());
+                }
+                hasMore = slice.size() > pageSize;
+                if (hasMore) {
+                    slice.remove(pageSize);
+                }
+                Collections.reverse(slice);
+                iterator = slice.iterator();
+            }
+            AdminPageRowDto first = null;
+            AdminPageRowDto last = null;
+            int written = 0;
+            while (iterator.hasNext()) {
+                AdminPageRowDto row = iterator.next();
+                if (written == pageSize) {
+                    hasMore = true;
+                    break;
+                }
+                row.setChildCount(tree.getChildren(row.getCode()).size());
+                rowWriter.writeValue(generator, row);
+                first = first != null ? first : row;
+                last = row;
+                written++;
+            }
+            generator.writeEndArray();
+
+            boolean hasPrevious = knownParent && (backward ? hasMore : pageCursor != null);
+            boolean hasNext = knownParent && (!backward ? hasMore : pageCursor != null);
+            generator.writeStringField("previousCursor", hasPrevious && first != null
+                    ? PageCursor.before(first.getSortKey(), first.getId()).encode()
+                    : null);
+            generator.writeStringField("nextCursor", hasNext && last != null
+                    ? PageCursor.after(last.getSortKey(), last.getId()).encode()
+                    : null);
+            generator.writeEndObject();
+        }
+        log.debug("Admin rows of {} written", parentCode);
+    }
+}
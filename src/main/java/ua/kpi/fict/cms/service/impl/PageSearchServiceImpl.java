@@ -0,0 +1,280 @@
+package ua.kpi.fict.cms.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import ua.kpi.fict.cms.dto.response.PageDto;
+import ua.kpi.fict.cms.dto.response.SearchHitDto;
+import ua.kpi.fict.cms.dto.response.SearchResultDto;
+import ua.kpi.fict.cms.entity.Page;
+import ua.kpi.fict.cms.entity.enums.Language;
+import ua.kpi.fict.cms.html.HtmlFragments;
+import ua.kpi.fict.cms.repository.PageRepository;
+import ua.kpi.fict.cms.search.SearchAnalyzer;
+import ua.kpi.fict.cms.search.SearchDocument;
+import ua.kpi.fict.cms.search.SearchIndex;
+import ua.kpi.fict.cms.search.SearchMatch;
+import ua.kpi.fict.cms.service.PageSearchService;
+import ua.kpi.fict.cms.service.PageTreeService;
+import ua.kpi.fict.cms.statics.StaticTextManager;
+import ua.kpi.fict.cms.tree.PageNode;
+import ua.kpi.fict.cms.tree.PageTree;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+@Log4j2
+@Service
+public class PageSearchServiceImpl implements PageSearchService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+    /*
+     * weight of one word by field it was found in
+     */
+    private static final float CAPTION_WEIGHT = 3;
+
+    private static final float INTRO_WEIGHT = 2;
+
+    private static final float CONTENT_WEIGHT = 1;
+
+    private final PageRepository pageRepository;
+
+    private final PageTreeService pageTreeService;
+
+    @Value("${cms.search.page-size}")
+    private int defaultPageSize;
+
+    @Value("${cms.search.rebuild-chunk-size}")
+    private int rebuildChunkSize;
+    /*
+     * swapped as a whole by rebuild, patched in place by single page changes
+     */
+    private volatile Map<Language, SearchIndex> indexes = createIndexes();
+    /*
+     * changes committed while rebuild reads the database, replayed over the new indexes before they are
+     * taken in use, null value stands for removed page, guarded by this
+     */
+    private Map<String, SearchDocument> pendingChanges;
+
+    @Override
+    public SearchResultDto search(String query, Language language, Integer page, Integer size) {
+        int pageNumber = page != null && page > 0 ? page : 1;
+        int pageSize = size != null && size > 0 ? Math.min(size, MAX_PAGE_SIZE) : defaultPageSize;
+        String normalizedQuery = query != null ? query.strip() : "";
+
+        List<String> terms = SearchAnalyzer.analyze(normalizedQuery, language).stream()
+                .distinct()
+                .collect(Collectors.toList());
+        List<SearchMatch> matches = indexes.get(language).search(terms);
+
+        PageTree tree = pageTreeService.getTree();
+        List<SearchHitDto> hits = new ArrayList<>(pageSize);
+        int from = (int) Math.min((long) (pageNumber - 1) * pageSize, matches.size());
+        for (SearchMatch match : matches.subList(from, Math.min(from + pageSize, matches.size()))) {
+            PageNode node = tree.getPage(match.getCode());
+            if (node != null) {
+                hits.add(SearchHitDto.builder()
+                        .code(node.getCode())
+                        .parentCode(node.getParentCode())
+                        .caption(node.getCaption(language))
+                        .intro(node.getIntro(language))
+                        .imageUrl(node.getImageUrl())
+                        .score(match.getScore())
+                        .build());
+            }
+        }
+        return SearchResultDto.builder()
+                .query(normalizedQuery)
+                .language(language)
+                .total(matches.size())
+                .page(pageNumber)
+                .size(pageSize)
+                .hits(hits)
+                .build();
+    }
+
+    @Override
+    public PageDto renderResults(String query, Language language, Integer page) {
+        SearchResultDto result = search(query, language, page, null);
+        String languagePrefix = language == Language.UA ? "" : "/en";
+        String searchText = StaticTextManager.getSearchText(language);
+
+        StringBuilder content = new StringBuilder();
+        if (!result.getQuery().isEmpty()) {
+            HtmlFragments.SEARCH_SUMMARY.render(content,
+                    String.format(StaticTextManager.getSearchResultsTemplate(language), result.getTotal()));
+            HtmlFragments.CHILD_CONTAINER_START.render(content, "list");
+            for (SearchHitDto hit : result.getHits()) {
+                HtmlFragments.CHILD_CARD.render(content,
+                        "child-reference-list",
+                        hit.getImageUrl(),
+                        hit.getCaption(),
+                        hit.getIntro(),
+                        languagePrefix + "/",
+                        hit.getCode(),
+                        StaticTextManager.getOpenTextShortened());
+            }
+            content.append(HtmlFragments.CHILD_CONTAINER_END);
+            appendPaginationButtons(content, result, languagePrefix, language);
+        }
+
+        return PageDto.builder()
+                .meta(HtmlFragments.META.render(searchText, result.getQuery()))
+                .header(HtmlFragments.HEADER.render(StaticTextManager.getHeaderText(language)))
+                .subheader(HtmlFragments.SEARCH_FORM.render(languagePrefix, result.getQuery(),
+                        StaticTextManager.getSearchPlaceholderText(language), searchText))
+                .title(searchText)
+                .content(content.toString())
+                .footer(HtmlFragments.FOOTER.render(StaticTextManager.getFooterSignText(language),
+                        StaticTextManager.getFooterCopyrightsText(language)))
+                .build();
+    }
+
+    private void appendPaginationButtons(StringBuilder builder,
+                                         SearchResultDto result,
+                                         String languagePrefix,
+                                         Language language) {
+
+        boolean hasPrevious = result.getPage() > 1;
+        boolean hasNext = (long) result.getPage() * result.getSize() < result.getTotal();
+        if (!hasPrevious && !hasNext) {
+            return;
+        }
+        String encodedQuery = URLEncoder.encode(result.getQuery(), StandardCharsets.UTF_8);
+        builder.append(HtmlFragments.PAGINATION_START);
+        if (hasPrevious) {
+            HtmlFragments.SEARCH_PAGINATION_BUTTON.render(builder, languagePrefix, encodedQuery,
+                    String.valueOf(result.getPage() - 1), StaticTextManager.getPreviousPageText(language));
+        }
+        if (hasNext) {
+            HtmlFragments.SEARCH_PAGINATION_BUTTON.render(builder, languagePrefix, encodedQuery,
+                    String.valueOf(result.getPage() + 1), StaticTextManager.getNextPageText(language));
+        }
+        builder.append(HtmlFragments.PAGINATION_END);
+    }
+
+    /*
+     * alias shows content of its target, it is not indexed on its own
+     */
+    @Override
+    public void indexPage(Page page) {
+        SearchDocument document = page.getAliasOf() == null ? SearchDocument.of(page) : null;
+        Map<Language, Map<String, Float>> terms = document != null ? analyze(document) : null;
+        synchronized (this) {
+            applyChange(indexes, page.getCode(), terms);
+            if (pendingChanges != null) {
+                pendingChanges.put(page.getCode(), document);
+            }
+        }
+    }
+
+    @Override
+    public void removePages(Set<String> codes) {
+        synchronized (this) {
+            for (String code : codes) {
+                applyChange(indexes, code, null);
+                if (pendingChanges != null) {
+                    pendingChanges.put(code, null);
+                }
+            }
+        }
+        log.debug("Pages removed from search index : {}", codes);
+    }
+
+    private static void applyChange(Map<Language, SearchIndex> target, String code, Map<Language, Map<String, Float>> terms) {
+        for (Language language : Language.values()) {
+            if (terms != null) {
+                target.get(language).put(code, terms.get(language));
+            } else {
+                target.get(language).remove(code);
+            }
+        }
+    }
+
+    /*
+     * pages are read by id ranges and every chunk is analyzed in parallel, site keeps answering searches
+     * from previous indexes meanwhile
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Override
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        synchronized (this) {
+            if (pendingChanges != null) {
+                log.info("Search index rebuild is already running");
+                return;
+            }
+            pendingChanges = new LinkedHashMap<>();
+        }
+        Map<Language, SearchIndex> rebuilt = createIndexes();
+        try {
+            long lastId = 0;
+            List<SearchDocument> documents;
+            do {
+                documents = pageRepository.findSearchDocuments(lastId, PageRequest.of(0, rebuildChunkSize));
+                List<Map<Language, Map<String, Float>>> analyzed = documents.parallelStream()
+                        .map(PageSearchServiceImpl::analyze)
+                        .collect(Collectors.toList());
+                for (int i = 0; i < documents.size(); i++) {
+                    applyChange(rebuilt, documents.get(i).getCode(), analyzed.get(i));
+                }
+                if (!documents.isEmpty()) {
+                    lastId = documents.get(documents.size() - 1).getId();
+                }
+            } while (documents.size() == rebuildChunkSize);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendingChanges = null;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            pendingChanges.forEach((code, document) ->
+                    applyChange(rebuilt, code, document != null ? analyze(document) : null));
+            pendingChanges = null;
+            indexes = rebuilt;
+        }
+        log.info("Search index built with {} pages in {} ms",
+                rebuilt.get(Language.UA).size(), System.currentTimeMillis() - start);
+    }
+
+    private static Map<Language, Map<String, Float>> analyze(SearchDocument document) {
+        Map<Language, Map<String, Float>> terms = new EnumMap<>(Language.class);
+        for (Language language : Language.values()) {
+            Map<String, Float> languageTerms = new HashMap<>();
+            addTerms(languageTerms, document.getCaption(language), language, CAPTION_WEIGHT);
+            addTerms(languageTerms, document.getIntro(language), language, INTRO_WEIGHT);
+            addTerms(languageTerms, SearchAnalyzer.stripHtml(document.getContent(language)), language, CONTENT_WEIGHT);
+            terms.put(language, languageTerms);
+        }
+        return terms;
+    }
+
+    private static void addTerms(Map<String, Float> terms, String text, Language language, float weight) {
+        for (String term : SearchAnalyzer.analyze(text, language)) {
+            terms.merge(term, weight, Float::sum);
+        }
+    }
+
+    private static Map<Language, SearchIndex> createIndexes() {
+        Map<Language, SearchIndex> indexes = new EnumMap<>(Language.class);
+        for (Language language : Language.values()) {
+            indexes.put(language, new SearchIndex());
+        }
+        return Collections.unmodifiableMap(indexes);
+    }
+}
@@ -2,47 +2,172 @@ package ua.kpi.fict.cms.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ua.kpi.fict.cms.cache.PageDocument;
+import ua.kpi.fict.cms.cache.PageRenderCache;
+import ua.kpi.fict.cms.dto.request.PageCursor;
+import ua.kpi.fict.cms.dto.response.AdminPageRowDto;
+import ua.kpi.fict.cms.dto.response.AdminPageSliceDto;
 import ua.kpi.fict.cms.dto.response.AdminPanelPageDto;
+import ua.kpi.fict.cms.dto.response.ChildCardDto;
+import ua.kpi.fict.cms.dto.response.PageDeleteDto;
 import ua.kpi.fict.cms.dto.response.PageDto;
+import ua.kpi.fict.cms.dto.response.PageMoveDto;
+import ua.kpi.fict.cms.dto.response.PageValidatorDto;
 import ua.kpi.fict.cms.entity.MessageType;
 import ua.kpi.fict.cms.entity.Page;
+import ua.kpi.fict.cms.entity.PageContent;
 import ua.kpi.fict.cms.entity.enums.ContainerType;
 import ua.kpi.fict.cms.entity.enums.Language;
 import ua.kpi.fict.cms.entity.enums.OrderType;
+import ua.kpi.fict.cms.exception.AliasCycleException;
+import ua.kpi.fict.cms.exception.PageMoveCycleException;
+import ua.kpi.fict.cms.exception.PageNotFoundException;
+import ua.kpi.fict.cms.exception.ReservedPageCodeException;
+import ua.kpi.fict.cms.exception.RootPageException;
+import ua.kpi.fict.cms.html.HtmlFragment;
+import ua.kpi.fict.cms.html.HtmlFragments;
+import ua.kpi.fict.cms.repository.PageContentRepository;
 import ua.kpi.fict.cms.repository.PageRepository;
+import ua.kpi.fict.cms.service.PageOrderService;
+import ua.kpi.fict.cms.service.PageSearchService;
 import ua.kpi.fict.cms.service.PageService;
+import ua.kpi.fict.cms.service.PageTreeService;
 import ua.kpi.fict.cms.statics.StaticTextManager;
+import ua.kpi.fict.cms.tree.PageNode;
+import ua.kpi.fict.cms.tree.PageTree;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.ArrayDeque;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
 @Log4j2
 @Service
 public class PageServiceImpl implements PageService {
 
+    private static final String ROOT_CODE = "root";
+
+    private static final String PATH_SEPARATOR = "/";
+
+    private static final int MAX_INDEX_PAGE_SIZE = 500;
+    /*
+     * expected size of values in one child card or table row, builders are pre-sized with it
+     */
+    private static final int CHILD_CARD_CAPACITY = HtmlFragments.CHILD_CARD.getLiteralLength() + 256;
+
+    private static final int CHILD_CONTAINER_CAPACITY = HtmlFragments.CHILD_CONTAINER_START.getLiteralLength()
+            + HtmlFragments.CHILD_CONTAINER_END.length() + 16;
+
+    private static final int INDEX_ROW_CAPACITY = HtmlFragments.ROW_WITH_CHILDREN.getLiteralLength() + 256;
+
+    private static final int INDEX_TABLE_CAPACITY = HtmlFragments.INDEX_TABLE_START.length()
+            + HtmlFragments.INDEX_TABLE_END.length() + 16;
+    /*
+     * markup which depends on language only is built once
+     */
+    private static final Map<Language, String> HEADERS = perLanguage(language ->
+            HtmlFragments.HEADER.render(StaticTextManager.getHeaderText(language)));
+
+    private static final Map<Language, String> FOOTERS = perLanguage(language ->
+            HtmlFragments.FOOTER.render(StaticTextManager.getFooterSignText(language),
+                    StaticTextManager.getFooterCopyrightsText(language)));
+
+    private static final Map<Language, String> INDEX_TABLE_HEADERS = perLanguage(PageServiceImpl::buildIndexTableHeader);
+
+    private static final Map<Language, String> LANGUAGE_ROOTS = perLanguage(language ->
+            language == Language.UA ? "/" : "/en");
+
     private final PageRepository pageRepository;
 
+    private final PageContentRepository pageContentRepository;
+
+    private final PageRenderCache renderCache;
+
+    private final PageTreeService pageTreeService;
+
+    private final PageOrderService pageOrderService;
+
+    private final PageSearchService pageSearchService;
+
+    @Value("${cms.admin.page-size}")
+    private int defaultIndexPageSize;
+
+    @Value("${cms.render.streaming-threshold}")
+    private int streamingThreshold;
+    /*
+     * build time of release, part of every validator, so markup changed by new release is not answered with 304,
+     * same on every node running the release and across restarts
+     */
+    @Value("${cms.render.release-time}")
+    private Instant releaseTime;
+
+    /*
+     * final target of alias chain in one lookup, page code itself when it is not an alias,
+     * unknown codes are rejected by the snapshot, which holds every stored code, before any query is made
+     */
     @Override
     public String purifyPageCode(String pageCode) {
-        Page page = findPageByCode(pageCode);
-        return page.getAliasOf() != null
-                ? page.getAliasOf().getCode()
-                : page.getCode();
+        String resolvedCode = pageTreeService.getTree().resolve(pageCode);
+        if (resolvedCode == null) {
+            throw new PageNotFoundException(pageCode);
+        }
+        return resolvedCode;
     }
 
     @Override
     public PageDto render(Language language, String pageCode) {
-        Page page = findPageByCode(pageCode);
+        return renderCache.get(language, pageCode, () -> renderPage(language, pageCode));
+    }
+
+    /*
+     * whole document is rendered once and kept with its compressed encoding
+     */
+    @Override
+    public PageDocument renderDocument(Language language, String pageCode) {
+        return renderCache.getDocument(language, pageCode, () -> {
+            StringWriter writer = new StringWriter();
+            try {
+                render(language, pageCode, writer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return PageDocument.of(writer.toString());
+        });
+    }
+
+    private PageDto renderPage(Language language, String pageCode) {
+        PageTree tree = pageTreeService.getTree();
+        PageNode node = tree.getPage(pageCode);
 
-        String meta = buildMeta(page, language);
+        String meta = buildMeta(node, language);
         String header = buildHeader(language);
-        String subheader = buildSubheader(page, language);
-        String title = page.getCaption(language);
-        String imageUrl = page.getImageUrl();
-        String content = buildContent(page, language);
+        String subheader = buildSubheader(tree, node, language);
+        String title = node.getCaption(language);
+        String imageUrl = node.getImageUrl();
+        String content = buildContent(node, findContent(node, language), language);
         String footer = buildFooter(language);
 
         return PageDto.builder()
@@ -56,109 +181,186 @@ public class PageServiceImpl implements PageService {
                 .build();
     }
 
-    private String buildMeta(Page page, Language language) {
-
-        return String.format(
-                "        <title>%s</title>" +
-                        "<meta name=\"description\" content=\"%s\">",
-                page.getCaption(language), page.getIntro(language)
-        );
+    private String buildMeta(PageNode node, Language language) {
+        return HtmlFragments.META.render(node.getCaption(language), node.getIntro(language));
     }
 
-    private String buildSubheader(Page page, Language language) {
-        return buildBackButton(page, language);
+    private String buildSubheader(PageTree tree, PageNode node, Language language) {
+        return buildBreadcrumbs(tree.getAncestors(node.getCode()), language);
     }
 
-    private String buildBackButton(Page page, Language language) {
-        if (page.getParentPage() == null) {
+    /*
+     * every ancestor from root down to parent, taken by ids of materialized path
+     */
+    private String buildBreadcrumbs(List<PageNode> ancestors, Language language) {
+        if (ancestors.isEmpty()) {
             return "";
         }
-        String parentCode = page.getParentPage().getCode(language);
-
-        return String.format(
-                "<a class=\"custom-a back-link\" href=\"%s\">← %s</a>",
-                parentCode.equals("root")
-                        ? "/"
-                        : parentCode.equals("/en/root")
-                        ? "/en"
-                        : parentCode,
-                page.getParentPage().getCaption(language)
-        );
+        StringBuilder builder = new StringBuilder(HtmlFragments.BREADCRUMBS_START);
+        for (int i = 0; i < ancestors.size(); i++) {
+            PageNode ancestor = ancestors.get(i);
+            if (i > 0) {
+                builder.append(HtmlFragments.BREADCRUMB_SEPARATOR);
+            }
+            String link = ancestor.getCode().equals(ROOT_CODE)
+                    ? LANGUAGE_ROOTS.get(language)
+                    : buildPageLink(ancestor.getCode(), language);
+            HtmlFragments.BREADCRUMB.render(builder, link, ancestor.getCaption(language));
+        }
+        return builder.append(HtmlFragments.BREADCRUMBS_END).toString();
     }
 
-    private String buildContent(Page page, Language language) {
-        StringBuilder builder = new StringBuilder();
+    /*
+     * base content and children cards are written into one builder sized for the whole result
+     */
+    private String buildContent(PageNode node, String baseContent, Language language) {
+        if (node.getContainerType() == null) {
+            return baseContent;
+        }
+        List<ChildCardDto> childCards = findChildCards(node, language);
+        StringBuilder builder = new StringBuilder(emptyIfNull(baseContent).length()
+                + childCards.size() * CHILD_CARD_CAPACITY
+                + CHILD_CONTAINER_CAPACITY);
 
-        String baseContent = page.getContent(language);
         builder.append(baseContent);
+        try {
+            writeChildrenContainer(builder, node, childCards, language);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return builder.toString();
+    }
 
-        String childrenContainer = buildChildrenContainer(page, language);
-        builder.append(childrenContainer);
+    /*
+     * body of rendered language only, page entity is not loaded
+     */
+    private String findContent(PageNode node, Language language) {
+        return pageContentRepository.findContent(node.getId(), language).orElse("");
+    }
 
-        return builder.toString();
+    private List<ChildCardDto> findChildCards(PageNode node, Language language) {
+        return pageRepository.findChildCards(node.getCode(), language);
     }
 
-    private String buildChildrenContainer(Page page, Language language) {
-        if (page.getContainerType() == null) {
-            return "";
+    private void writeChildrenContainer(Appendable out,
+                                        PageNode node,
+                                        List<ChildCardDto> childCards,
+                                        Language language) throws IOException {
+
+        boolean grid = node.getContainerType() == ContainerType.GRID;
+        String referenceClass = grid ? "" : "child-reference-list";
+        String languagePrefix = language == Language.UA ? "/" : "/en/";
+        String openText = grid
+                ? StaticTextManager.getOpenText(language)
+                : StaticTextManager.getOpenTextShortened();
+
+        HtmlFragments.CHILD_CONTAINER_START.write(out, node.getContainerType().name().toLowerCase(Locale.ROOT));
+        for (ChildCardDto childCard : childCards) {
+            HtmlFragments.CHILD_CARD.write(out,
+                    referenceClass,
+                    childCard.getImageUrl(),
+                    childCard.getCaption(),
+                    childCard.getIntro(),
+                    languagePrefix,
+                    childCard.getCode(),
+                    openText);
         }
-        StringBuilder builder = new StringBuilder();
-        builder.append(String.format(
-                "<div class=\"child-container child-container-%s\">",
-                page.getContainerType().toString().toLowerCase())
-        );
-
-        List<Page> childPages = new ArrayList<>(page.getChildPages());
-        OrderType orderType = page.getOrderType() != null ? page.getOrderType() : OrderType.DEFAULT;
-        childPages.sort(orderType.getComparator());
-
-        for (Page childPage : childPages) {
-            builder.append(String.format(
-                    "<div class=\"child-reference %s\">",
-                    page.getContainerType() == ContainerType.GRID
-                            ? ""
-                            : "child-reference-list")
-            );
-            builder.append(String.format(
-                    "<img class=\"img-small\" src=\"%s\" />",
-                    childPage.getImageUrl())
-            );
-            builder.append(String.format(
-                    "<h3>%s</h3>",
-                    childPage.getCaption(language))
-            );
-            builder.append(String.format(
-                    "<p>%s</p>",
-                    childPage.getIntro(language))
-            );
-            builder.append(String.format(
-                    "<a class=\"custom-a\" href=\"%s\">%s</a>",
-                    childPage.getCode(language),
-                    page.getContainerType() == ContainerType.GRID
-                            ? StaticTextManager.getOpenText(language)
-                            : StaticTextManager.getOpenTextShortened())
-            );
-            builder.append("</div>");
-        }
-        builder.append("</div>");
+        out.append(HtmlFragments.CHILD_CONTAINER_END);
+    }
 
-        return builder.toString();
+    /*
+     * pages with many children are written to the response as they are produced instead of being cached
+     */
+    @Override
+    public boolean isStreamed(String pageCode) {
+        PageTree tree = pageTreeService.getTree();
+        PageNode node = tree.getPage(pageCode);
+        return node != null
+                && node.getContainerType() != null
+                && tree.getChildren(pageCode).size() >= streamingThreshold;
+    }
+
+    /*
+     * taken from snapshot only, page itself is not loaded,
+     * children count covers removed children which were not the newest ones
+     */
+    @Override
+    public PageValidatorDto getPageValidator(Language language, String pageCode) {
+        PageTree tree = pageTreeService.getTree();
+        long lastModified = Math.max(tree.getLastModified(pageCode), releaseTime.toEpochMilli());
+        String etag = "\"" + language.name().toLowerCase(Locale.ROOT)
+                + "-" + Long.toHexString(lastModified)
+                + "-" + Integer.toHexString(tree.getChildren(pageCode).size()) + "\"";
+
+        return PageValidatorDto.builder()
+                .etag(etag)
+                .lastModified(lastModified)
+                .build();
+    }
+
+    /*
+     * admin table shows children counts and aliases of other pages, so any change of pages invalidates it,
+     * tag is built from pages themselves rather than snapshot version, which starts over with every process,
+     * tag is weak, as server compresses admin pages on the fly
+     */
+    @Override
+    public PageValidatorDto getIndexValidator(Language language) {
+        PageTree tree = pageTreeService.getTree();
+        String etag = "W/\"admin-" + language.name().toLowerCase(Locale.ROOT)
+                + "-" + Long.toHexString(releaseTime.toEpochMilli())
+                + "-" + Long.toHexString(tree.getNewestModification())
+                + "-" + Integer.toHexString(tree.size()) + "\"";
+
+        return PageValidatorDto.builder()
+                .etag(etag)
+                .lastModified(-1)
+                .build();
+    }
+
+    /*
+     * head is flushed before content and children are loaded, so browser starts fetching styles early
+     */
+    @Override
+    public void render(Language language, String pageCode, Writer writer) throws IOException {
+        PageTree tree = pageTreeService.getTree();
+        PageNode node = tree.getPage(pageCode);
+
+        HtmlFragments.DOCUMENT_HEAD.write(writer, language.name().toLowerCase(Locale.ROOT), buildMeta(node, language));
+        writer.flush();
+
+        HtmlFragments.DOCUMENT_BODY_START.write(writer,
+                buildHeader(language),
+                buildSubheader(tree, node, language),
+                node.getCaption(language));
+        if (node.getImageUrl() != null) {
+            HtmlFragments.DOCUMENT_IMAGE.write(writer, node.getImageUrl());
+        }
+        writer.write(findContent(node, language));
+        writer.flush();
+
+        if (node.getContainerType() != null) {
+            writeChildrenContainer(writer, node, findChildCards(node, language), language);
+        }
+        HtmlFragments.DOCUMENT_END.write(writer, buildFooter(language));
+        writer.flush();
+    }
+
+    /*
+     * links are root relative, exported pages are served as directories, where relative ones would resolve
+     * below the page itself
+     */
+    private String buildPageLink(String code, Language language) {
+        return language == Language.UA
+                ? "/" + code
+                : "/en/" + code;
     }
 
     private String buildHeader(Language language) {
-        return String.format(
-                "<h2>%s</h2>",
-                StaticTextManager.getHeaderText(language)
-        );
+        return HEADERS.get(language);
     }
 
     private String buildFooter(Language language) {
-        return String.format(
-                "          <h3>%s</h3>"
-                        + "<h5>%s</h5>",
-                StaticTextManager.getFooterSignText(language),
-                StaticTextManager.getFooterCopyrightsText(language)
-        );
+        return FOOTERS.get(language);
     }
 
     @Override
@@ -166,32 +368,179 @@ public class PageServiceImpl implements PageService {
         return pageRepository.findByParentPageCode(parentCode);
     }
 
+    @Transactional
     @Override
     public void save(Page page) {
+        if (RESERVED_CODES.contains(page.getCode())) {
+            throw new ReservedPageCodeException(page.getCode());
+        }
         page.setCreationDate(new Date(System.currentTimeMillis()));
         page.setUpdateDate(new Date(System.currentTimeMillis()));
+        page.setLastModified(new Timestamp(System.currentTimeMillis()));
         updateDependencies(page);
+        page.setSortKey(getSortKey(page));
+        page.updateContentLengths();
         pageRepository.save(page);
+        page.setPath(buildPath(page.getParentPage() != null ? page.getParentPage().getPath() : null, page.getId()));
+        pageContentRepository.save(PageContent.of(page));
+
+        PageNode node = PageNode.of(page);
+        Set<String> affectedCodes = collectAffectedCodes(pageTreeService.getTree(), node, new HashSet<>());
+        afterCommit(() -> {
+            pageTreeService.putPage(node);
+            renderCache.evict(affectedCodes);
+            pageSearchService.indexPage(page);
+        });
     }
 
+    @Transactional
     @Override
     public void update(Page page) {
         updateDependencies(page);
-        Page pageToSave = updateOriginalPage(page);
+        Page original = findPageByCode(page.getCode());
+        OrderType previousOrderType = OrderType.of(original.getOrderType());
+        String previousParentCode = getParentCode(original);
+        String previousPath = original.getPath();
+        Page pageToSave = updateOriginalPage(original, page);
+        boolean moved = !Objects.equals(previousParentCode, getParentCode(pageToSave));
+        if (moved) {
+            pageRepository.lockPage(ROOT_CODE);
+            String parentPath = pageToSave.getParentPage() != null ? pageToSave.getParentPage().getPath() : null;
+            checkMoveCycle(pageToSave.getCode(), previousPath, getParentCode(pageToSave), parentPath);
+            pageToSave.setPath(buildPath(parentPath, pageToSave.getId()));
+        }
+        pageToSave.setSortKey(getSortKey(pageToSave));
+        pageToSave.updateContentLengths();
         pageRepository.save(pageToSave);
+        pageContentRepository.save(PageContent.of(pageToSave));
+
+        PageTree tree = pageTreeService.getTree();
+        PageNode node = PageNode.of(pageToSave);
+        List<PageNode> changedNodes = moved
+                ? moveSubtreePaths(previousPath, pageToSave.getPath(), pageToSave.getLastModified())
+                : List.of(node);
+        Set<String> affectedCodes = collectAffectedCodes(tree, node, new HashSet<>());
+        PageNode previous = tree.getPage(node.getCode());
+        if (previous != null) {
+            collectAffectedCodes(tree, previous, affectedCodes);
+            if (moved || !Objects.equals(previous.getCaptionUa(), node.getCaptionUa())
+                    || !Objects.equals(previous.getCaptionEn(), node.getCaptionEn())) {
+                collectDescendantCodes(tree, node.getCode(), affectedCodes);
+            }
+        }
+        if (previousOrderType != OrderType.of(pageToSave.getOrderType())) {
+            pageOrderService.reorderChildren(pageToSave.getCode(), pageToSave.getOrderType());
+        }
+        afterCommit(() -> {
+            pageTreeService.putPages(changedNodes);
+            renderCache.evict(affectedCodes);
+            pageSearchService.indexPage(pageToSave);
+        });
+        if (moved && previousParentCode != null) {
+            touchParents(Set.of(previousParentCode), pageToSave.getLastModified());
+        }
+    }
+
+    /*
+     * parent shows cards of its children, page leaving it is not among them anymore to move its last
+     * modification time, so parent gets its own
+     */
+    private void touchParents(Set<String> parentCodes, Timestamp lastModified) {
+        if (parentCodes.isEmpty()) {
+            return;
+        }
+        pageRepository.updateLastModified(parentCodes, lastModified);
+        afterCommit(() -> pageTreeService.updatePages(parentCodes,
+                node -> node.toBuilder().lastModified(lastModified).build()));
+    }
+
+    private static String getParentCode(Page page) {
+        return page.getParentPage() != null ? page.getParentPage().getCode() : null;
+    }
+
+    /*
+     * ids of ancestors and of the page itself, "/1/5/12/"
+     */
+    private static String buildPath(String parentPath, Long id) {
+        return (parentPath != null ? parentPath : PATH_SEPARATOR) + id + PATH_SEPARATOR;
+    }
+
+    /*
+     * paths below moved page are rewritten by one range update, refreshed subtree is read back
+     * for the snapshot, moved page included
+     */
+    private List<PageNode> moveSubtreePaths(String previousPath, String path, Timestamp lastModified) {
+        pageRepository.movePaths(previousPath, path, lastModified);
+        return pageRepository.findSubtreeNodes(path);
+    }
+
+    /*
+     * position of page in container of its parent, under parent order type
+     */
+    private long getSortKey(Page page) {
+        Page parentPage = page.getParentPage();
+        return OrderType.of(parentPage != null ? parentPage.getOrderType() : null).getSortKey(page);
+    }
+
+    /*
+     * page itself, its parent (child container), its children (breadcrumbs) and its aliases
+     */
+    private Set<String> collectAffectedCodes(PageTree tree, PageNode node, Set<String> codes) {
+        codes.add(node.getCode());
+        if (node.getParentCode() != null) {
+            codes.add(node.getParentCode());
+        }
+        tree.getChildren(node.getCode()).forEach(childNode -> codes.add(childNode.getCode()));
+        codes.addAll(tree.getAliases(node.getCode()));
+        return codes;
+    }
+
+    /*
+     * breadcrumbs of whole subtree show caption of the page
+     */
+    private static void collectDescendantCodes(PageTree tree, String code, Set<String> codes) {
+        Deque<String> pending = new ArrayDeque<>(List.of(code));
+        Set<String> visited = new HashSet<>(pending);
+        while (!pending.isEmpty()) {
+            for (PageNode child : tree.getChildren(pending.poll())) {
+                if (visited.add(child.getCode())) {
+                    codes.add(child.getCode());
+                    pending.add(child.getCode());
+                }
+            }
+        }
+    }
+
+    /*
+     * snapshot and caches must not see changes of transaction which may still be rolled back
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 
     private void updateDependencies(Page page) {
         page.setParentPage(findPageByCode(page.getParentPage().getCode()));
-        if (!page.getAliasOf().getCode().isEmpty()) {
-            page.setAliasOf(findPageByCode(page.getAliasOf().getCode()));
+        String aliasOfCode = page.getAliasOf().getCode();
+        if (!aliasOfCode.isEmpty()) {
+            if (pageTreeService.getTree().createsAliasCycle(page.getCode(), aliasOfCode)) {
+                throw new AliasCycleException(page.getCode(), aliasOfCode);
+            }
+            page.setAliasOf(findPageByCode(aliasOfCode));
         } else {
             page.setAliasOf(null);
         }
     }
 
-    private Page updateOriginalPage(Page page) {
-        Page original = findPageByCode(page.getCode());
+    private Page updateOriginalPage(Page original, Page page) {
         original.setCaptionEn(page.getCaptionEn());
         original.setCaptionUa(page.getCaptionUa());
         original.setCode(page.getCode());
@@ -206,18 +555,130 @@ public class PageServiceImpl implements PageService {
         original.setAliasOf(page.getAliasOf());
         original.setParentPage(page.getParentPage());
         original.setUpdateDate(new Date(System.currentTimeMillis()));
+        original.setLastModified(new Timestamp(System.currentTimeMillis()));
         return original;
     }
 
+    @Transactional
     @Override
     public void delete(Page page) {
-        pageRepository.delete(page);
+        deleteSubtree(page.getCode(), false);
     }
 
+    /*
+     * removed codes come from the database, not from the snapshot, so pages added meanwhile are not left orphaned
+     */
+    @Transactional
     @Override
-    public AdminPanelPageDto getIndexPage(String parentCode, Language language, MessageType messageType) {
+    public PageDeleteDto deleteSubtree(String code, boolean dryRun) {
+        long start = System.currentTimeMillis();
+        if (ROOT_CODE.equals(code)) {
+            throw new RootPageException("removed");
+        }
+        Map<String, String> subtree = pageRepository.findSubtree(code);
+        if (subtree.isEmpty()) {
+            throw new PageNotFoundException(code);
+        }
+        if (!dryRun) {
+            int deleted = pageRepository.deletePages(subtree.keySet());
+            Set<String> removedCodes = new HashSet<>(subtree.keySet());
+            Set<String> remainingParentCodes = findRemainingParentCodes(pageTreeService.getTree(), removedCodes);
+            Set<String> affectedCodes = new HashSet<>(removedCodes);
+            affectedCodes.addAll(remainingParentCodes);
+            afterCommit(() -> {
+                pageTreeService.removePages(removedCodes);
+                renderCache.evict(affectedCodes);
+                pageSearchService.removePages(removedCodes);
+            });
+            touchParents(remainingParentCodes, new Timestamp(System.currentTimeMillis()));
+            log.info("Page {} removed with {} pages of its subtree", code, deleted - 1);
+        }
+        return PageDeleteDto.builder()
+                .code(code)
+                .dryRun(dryRun)
+                .pages(subtree.size())
+                .aliases((int) subtree.values().stream().filter(Objects::nonNull).count())
+                .codes(subtree.keySet().stream().sorted().collect(Collectors.toList()))
+                .durationMillis(System.currentTimeMillis() - start)
+                .build();
+    }
+
+    /*
+     * removed aliases may live under other parents than the removed page, every parent which stays
+     * loses cards of its removed children
+     */
+    private static Set<String> findRemainingParentCodes(PageTree tree, Set<String> removedCodes) {
+        Set<String> parentCodes = new HashSet<>();
+        for (String removedCode : removedCodes) {
+            PageNode removed = tree.getPage(removedCode);
+            if (removed != null && removed.getParentCode() != null && !removedCodes.contains(removed.getParentCode())) {
+                parentCodes.add(removed.getParentCode());
+            }
+        }
+        return parentCodes;
+    }
+
+    /*
+     * row of moved page and paths of its subtree change, descendants refer to it by code, moves are serialized
+     * by lock on root row, so two concurrent moves can not close a cycle together
+     */
+    @Transactional
+    @Override
+    public PageMoveDto movePage(String code, String parentCode) {
+        long start = System.currentTimeMillis();
+        if (ROOT_CODE.equals(code)) {
+            throw new RootPageException("moved");
+        }
+        pageRepository.lockPage(ROOT_CODE);
+        PageNode node = pageRepository.findNode(code).orElseThrow(() -> new PageNotFoundException(code));
+        PageNode parent = pageRepository.findNode(parentCode).orElseThrow(() -> new PageNotFoundException(parentCode));
+        checkMoveCycle(code, node.getPath(), parentCode, parent.getPath());
+
+        long sortKey = OrderType.of(parent.getOrderType()).getSortKey(node);
+        Timestamp lastModified = new Timestamp(System.currentTimeMillis());
+        pageRepository.movePage(code, parentCode, sortKey, lastModified);
+        List<PageNode> movedNodes = moveSubtreePaths(node.getPath(), buildPath(parent.getPath(), node.getId()), lastModified);
+
+        Set<String> affectedCodes = movedNodes.stream().map(PageNode::getCode).collect(Collectors.toSet());
+        affectedCodes.add(parentCode);
+        if (node.getParentCode() != null) {
+            affectedCodes.add(node.getParentCode());
+        }
+        afterCommit(() -> {
+            pageTreeService.putPages(movedNodes);
+            renderCache.evict(affectedCodes);
+        });
+        if (node.getParentCode() != null) {
+            touchParents(Set.of(node.getParentCode()), lastModified);
+        }
+        log.info("Page {} moved from {} to {}", code, node.getParentCode(), parentCode);
+        return PageMoveDto.builder()
+                .code(code)
+                .previousParentCode(node.getParentCode())
+                .parentCode(parentCode)
+                .sortKey(sortKey)
+                .durationMillis(System.currentTimeMillis() - start)
+                .build();
+    }
+
+    /*
+     * new parent lies in subtree of the page when its path starts with path of the page
+     */
+    private static void checkMoveCycle(String code, String path, String parentCode, String parentPath) {
+        if (path != null && parentPath != null && parentPath.startsWith(path)) {
+            throw new PageMoveCycleException(code, parentCode);
+        }
+    }
+
+    @Override
+    public AdminPanelPageDto getIndexPage(String parentCode,
+                                          String cursor,
+                                          Integer size,
+                                          Language language,
+                                          MessageType messageType) {
+
         String header = buildHeader(language);
-        String content = buildIndexPageContent(parentCode, language, messageType);
+        String content = buildIndexPageContent(parentCode, cursor, size, language, messageType);
         String footer = buildFooter(language);
 
         return AdminPanelPageDto.builder()
@@ -227,21 +688,33 @@ public class PageServiceImpl implements PageService {
                 .build();
     }
 
-    private String buildIndexPageContent(String parentCode, Language language, MessageType messageType) {
+    private String buildIndexPageContent(String parentCode,
+                                         String cursor,
+                                         Integer size,
+                                         Language language,
+                                         MessageType messageType) {
+
         StringBuilder builder = new StringBuilder();
+        int pageSize = size != null && size > 0
+                ? Math.min(size, MAX_INDEX_PAGE_SIZE)
+                : defaultIndexPageSize;
+        AdminPageSliceDto slice = findIndexSlice(parentCode, PageCursor.decode(cursor), pageSize);
 
         String messageBlock = buildMessageBlock(language, messageType);
         builder.append(messageBlock);
 
-        String backButton = buildAdminBackButton(parentCode, language);
-        builder.append(backButton);
+        String breadcrumbs = buildAdminBreadcrumbs(parentCode, language);
+        builder.append(breadcrumbs);
 
         String header = buildIndexPageHeader(parentCode, language);
         builder.append(header);
 
-        String table = buildIndexTable(parentCode, language);
+        String table = buildIndexTable(slice, language);
         builder.append(table);
 
+        String paginationButtons = buildPaginationButtons(parentCode, slice, pageSize, language);
+        builder.append(paginationButtons);
+
         String createButton = buildCreateButton(parentCode, language);
         builder.append(createButton);
 
@@ -254,71 +727,118 @@ public class PageServiceImpl implements PageService {
         }
         switch (messageType) {
             case SAVED:
-                return String.format(
-                        "<div class=\"alert alert-success mb-4\">%s</div>",
-                        StaticTextManager.getSuccessfulPageCreationText(language)
-                );
+                return HtmlFragments.ALERT.render("success", StaticTextManager.getSuccessfulPageCreationText(language));
             case UPDATED:
-                return String.format(
-                        "<div class=\"alert alert-success mb-4\">%s</div>",
-                        StaticTextManager.getSuccessfulPageUpdateText(language)
-                );
+                return HtmlFragments.ALERT.render("success", StaticTextManager.getSuccessfulPageUpdateText(language));
             case DELETED:
-                return String.format(
-                        "<div class=\"alert alert-danger mb-4\">%s</div>",
-                        StaticTextManager.getSuccessfulPageDeletionText(language)
-                );
+                return HtmlFragments.ALERT.render("danger", StaticTextManager.getSuccessfulPageDeletionText(language));
             default:
                 return "";
         }
     }
 
-    private String buildAdminBackButton(String parentCode, Language language) {
-        Page parentPage = findPageByCode(parentCode).getParentPage();
-        return parentCode != null && !parentCode.isEmpty()
-                ? String.format("<div class=\"row d-flex justify-content-start mt-4 mb-5 ml-1\">" +
-                        "            <a href=\"%s/admin/pages?parentCode=%s\">" +
-                        "               <button class=\"btn btn-primary\">← /%s</button>" +
-                        "            </a>" +
-                        "        </div>",
-                language == Language.UA ? "" : "/en",
-                parentPage != null ? parentPage.getCode() : "",
-                parentPage != null ? parentPage.getCode() : ""
-        )
-                : "";
+    /*
+     * listing of root, every ancestor of shown parent and the parent itself
+     */
+    private String buildAdminBreadcrumbs(String parentCode, Language language) {
+        if (parentCode == null || parentCode.isEmpty()) {
+            return "";
+        }
+        String languagePrefix = language == Language.UA ? "" : "/en";
+        StringBuilder builder = new StringBuilder(HtmlFragments.ADMIN_BREADCRUMBS_START);
+        HtmlFragments.ADMIN_BREADCRUMB.render(builder, languagePrefix, "", "secondary", PATH_SEPARATOR);
+        for (PageNode ancestor : pageTreeService.getTree().getAncestors(parentCode)) {
+            HtmlFragments.ADMIN_BREADCRUMB.render(builder, languagePrefix, ancestor.getCode(), "secondary",
+                    ancestor.getCode());
+        }
+        HtmlFragments.ADMIN_BREADCRUMB.render(builder, languagePrefix, parentCode, "primary", parentCode);
+        return builder.append(HtmlFragments.ADMIN_BREADCRUMBS_END).toString();
     }
 
     private String buildIndexPageHeader(String parentCode, Language language) {
-        String template = "<h2 class=\"mb-4\">%s</h2>";
         String text = parentCode != null && !parentCode.isEmpty()
                 ? String.format(StaticTextManager.getAdminPanelPageHeaderTemplate(language), parentCode)
                 : StaticTextManager.getAdminPanelRootPageHeader(language);
 
-        return String.format(template, text);
-    }
+        return HtmlFragments.INDEX_PAGE_HEADER.render(text);
+    }
+
+    /*
+     * one slice of children ordered by parent order type, root page alone when no known parent is given
+     */
+    private AdminPageSliceDto findIndexSlice(String parentCode, PageCursor cursor, int size) {
+        PageNode parentNode = pageTreeService.getTree().getPage(parentCode);
+        if (parentNode == null) {
+            List<AdminPageRowDto> rows = pageRepository.findAdminRow(ROOT_CODE)
+                    .map(List::of)
+                    .orElse(List.of());
+            return AdminPageSliceDto.builder()
+                    .rows(withChildCounts(rows))
+                    .build();
+        }
+        List<AdminPageRowDto> rows = new ArrayList<>(pageRepository.findAdminRows(parentCode, cursor, size + 1));
 
-    private String buildIndexTable(String parentCode, Language language) {
-        StringBuilder builder = new StringBuilder();
-        builder.append("<table class=\"table-striped table-responsive-lg table-bordered table-sm table-hover shadow rounded mt-5\">");
+        boolean backward = cursor != null && cursor.isBackward();
+        boolean hasMore = rows.size() > size;
+        if (hasMore) {
+            rows.remove(size);
+        }
+        if (backward) {
+            Collections.reverse(rows);
+        }
+        boolean hasPrevious = backward ? hasMore : cursor != null;
+        boolean hasNext = !backward ? hasMore : cursor != null;
+
+        String previousCursor = null;
+        String nextCursor = null;
+        if (!rows.isEmpty()) {
+            AdminPageRowDto first = rows.get(0);
+            AdminPageRowDto last = rows.get(rows.size() - 1);
+            previousCursor = hasPrevious ? PageCursor.before(first.getSortKey(), first.getId()).encode() : null;
+            nextCursor = hasNext ? PageCursor.after(last.getSortKey(), last.getId()).encode() : null;
+        }
+        return AdminPageSliceDto.builder()
+                .rows(withChildCounts(rows))
+                .previousCursor(previousCursor)
+                .nextCursor(nextCursor)
+                .build();
+    }
 
-        String header = buildIndexTableHeader(language);
-        builder.append(header);
+    /*
+     * one grouped count query for the whole slice instead of loading children of every row
+     */
+    private List<AdminPageRowDto> withChildCounts(List<AdminPageRowDto> rows) {
+        if (rows.isEmpty()) {
+            return rows;
+        }
+        Set<String> codes = rows.stream()
+                .map(AdminPageRowDto::getCode)
+                .collect(Collectors.toSet());
+        Map<String, Long> childCounts = new HashMap<>();
+        for (Object[] childCount : pageRepository.countChildrenByParentCodes(codes)) {
+            childCounts.put((String) childCount[0], (Long) childCount[1]);
+        }
+        rows.forEach(row -> row.setChildCount(childCounts.getOrDefault(row.getCode(), 0L)));
+        return rows;
+    }
 
-        String body = buildIndexTableBody(parentCode, language);
-        builder.append(body);
+    private String buildIndexTable(AdminPageSliceDto slice, Language language) {
+        String header = INDEX_TABLE_HEADERS.get(language);
+        StringBuilder builder = new StringBuilder(header.length()
+                + slice.getRows().size() * INDEX_ROW_CAPACITY
+                + INDEX_TABLE_CAPACITY);
 
-        builder.append("</table>");
+        builder.append(HtmlFragments.INDEX_TABLE_START);
+        builder.append(header);
+        appendIndexTableBody(builder, slice, language);
+        builder.append(HtmlFragments.INDEX_TABLE_END);
 
         return builder.toString();
     }
 
     private String buildCreateButton(String parentCode, Language language) {
         return parentCode != null
-                ? String.format("<div class=\"row d-flex justify-content-center mt-4\">" +
-                        "            <a href=\"%s/admin/pages/create?parentCode=%s\">" +
-                        "               <button class=\"btn btn-success\">%s</button>" +
-                        "            </a>" +
-                        "        </div>",
+                ? HtmlFragments.CREATE_BUTTON.render(
                 language == Language.UA ? "" : "/en",
                 parentCode,
                 StaticTextManager.getCreateButtonText(language)
@@ -326,145 +846,111 @@ public class PageServiceImpl implements PageService {
                 : "";
     }
 
-    private String buildIndexTableHeader(Language language) {
+    private String buildPaginationButtons(String parentCode, AdminPageSliceDto slice, int size, Language language) {
+        if (slice.getPreviousCursor() == null && slice.getNextCursor() == null) {
+            return "";
+        }
         StringBuilder builder = new StringBuilder();
-
-        builder.append("<thead>");
-
-        builder.append(buildTableHeaderCell(""));
-        builder.append(buildTableHeaderCell("id"));
-        builder.append(buildTableHeaderCell(StaticTextManager.getCaptionEnText(language)));
-        builder.append(buildTableHeaderCell(StaticTextManager.getCaptionUaText(language)));
-        builder.append(buildTableHeaderCell(StaticTextManager.getCodeText(language)));
-        builder.append(buildTableHeaderCell(StaticTextManager.getContainerTypeText(language)));
-        builder.append(buildTableHeaderCell(StaticTextManager.getContentEnText(language)));
-        builder.append(buildTableHeaderCell(StaticTextManager.getContentUaText(language)));
-        builder.append(buildTableHeaderCell(StaticTextManager.getCreationDateText(language)));
-        builder.append(buildTableHeaderCell(StaticTextManager.getImageUrlText(language)));
-        builder.append(buildTableHeaderCell(StaticTextManager.getIntroEnText(language)));
-        builder.append(buildTableHeaderCell(StaticTextManager.getIntroUaText(language)));
-        builder.append(buildTableHeaderCell(StaticTextManager.getOrderNumText(language)));
-        builder.append(buildTableHeaderCell(StaticTextManager.getOrderTypeText(language)));
-        builder.append(buildTableHeaderCell(StaticTextManager.getUpdateDateText(language)));
-        builder.append(buildTableHeaderCell(StaticTextManager.getAliasOfText(language)));
-        builder.append(buildTableHeaderCell(StaticTextManager.getParentCodeText(language)));
-        builder.append(buildTableHeaderCell(""));
-        builder.append(buildTableHeaderCell(""));
-        builder.append(buildTableHeaderCell(""));
-
-        builder.append("</thead>");
+        builder.append(HtmlFragments.PAGINATION_START);
+        if (slice.getPreviousCursor() != null) {
+            appendPaginationButton(builder, parentCode, slice.getPreviousCursor(), size,
+                    StaticTextManager.getPreviousPageText(language), language);
+        }
+        if (slice.getNextCursor() != null) {
+            appendPaginationButton(builder, parentCode, slice.getNextCursor(), size,
+                    StaticTextManager.getNextPageText(language), language);
+        }
+        builder.append(HtmlFragments.PAGINATION_END);
 
         return builder.toString();
     }
 
-    private String buildIndexTableBody(String parentCode, Language language) {
-        StringBuilder builder = new StringBuilder();
-
-        builder.append("<tbody>");
-
-        Page parentPage = findPageByCode(parentCode);
-        if (parentPage.getCode() != null) {
-            for (Page page : parentPage.getChildPages()) {
-                String childRow = getChildPageRow(page, language);
-                builder.append(childRow);
-            }
-        } else {
-            Page rootPage = findPageByCode("root");
-            String rootChildRow = getChildPageRow(rootPage, language);
-            builder.append(rootChildRow);
-        }
-        builder.append("</tbody>");
+    private void appendPaginationButton(StringBuilder builder,
+                                        String parentCode,
+                                        String cursor,
+                                        int size,
+                                        String text,
+                                        Language language) {
 
-        return builder.toString();
+        HtmlFragments.PAGINATION_BUTTON.render(builder,
+                language == Language.UA ? "" : "/en",
+                parentCode,
+                Integer.toString(size),
+                cursor,
+                text);
     }
 
-    private String getChildPageRow(Page page, Language language) {
+    private static String buildIndexTableHeader(Language language) {
         StringBuilder builder = new StringBuilder();
 
-        builder.append("<tr>");
-
-        builder.append(buildTableCell(
-                page.getChildPages().isEmpty()
-                        ? ""
-                        : buildChildrenButton(page.getCode(), language)
-        ));
-        builder.append(buildTableCell(page.getId().toString()));
-        builder.append(buildTableCell(ellipsize(emptyIfNull(page.getCaptionEn()), 9)));
-        builder.append(buildTableCell(ellipsize(page.getCaptionUa(), 9)));
-        builder.append(buildTableCell(page.getCode()));
-        builder.append(buildTableCell(emptyIfNull(page.getContainerType())));
-        builder.append(buildTableCell(page.getContentEn().isEmpty() ? "" : "+"));
-        builder.append(buildTableCell(page.getContentUa().isEmpty() ? "" : "+"));
-        builder.append(buildTableCell(page.getCreationDate().toString()));
-        builder.append(buildTableCell(ellipsize(page.getImageUrl(), 9)));
-        builder.append(buildTableCell(ellipsize(page.getIntroEn(), 9)));
-        builder.append(buildTableCell(ellipsize(page.getIntroUa(), 9)));
-        builder.append(buildTableCell(emptyIfNull(page.getOrderNum())));
-        builder.append(buildTableCell(emptyIfNull(page.getOrderType())));
-        builder.append(buildTableCell(page.getUpdateDate().toString()));
-        builder.append(buildTableCell(
-                page.getAliasOf() != null
-                        ? emptyIfNull(page.getAliasOf().getCode())
-                        : ""
-        ));
-        builder.append(buildTableCell(
-                page.getParentPage() != null
-                        ? emptyIfNull(page.getParentPage().getCode())
-                        : ""
-        ));
-        builder.append(buildTableCell(buildShowButton(page.getCode(), language)));
-        builder.append(buildTableCell(buildUpdateButton(page.getCode(), language)));
-        builder.append(buildTableCell(buildDeleteButton(page.getCode(), language)));
-
-        builder.append("</tr>");
+        builder.append("<thead>");
+
+        appendTableHeaderCell(builder, "");
+        appendTableHeaderCell(builder, "id");
+        appendTableHeaderCell(builder, StaticTextManager.getCaptionEnText(language));
+        appendTableHeaderCell(builder, StaticTextManager.getCaptionUaText(language));
+        appendTableHeaderCell(builder, StaticTextManager.getCodeText(language));
+        appendTableHeaderCell(builder, StaticTextManager.getContainerTypeText(language));
+        appendTableHeaderCell(builder, StaticTextManager.getContentEnText(language));
+        appendTableHeaderCell(builder, StaticTextManager.getContentUaText(language));
+        appendTableHeaderCell(builder, StaticTextManager.getCreationDateText(language));
+        appendTableHeaderCell(builder, StaticTextManager.getImageUrlText(language));
+        appendTableHeaderCell(builder, StaticTextManager.getIntroEnText(language));
+        appendTableHeaderCell(builder, StaticTextManager.getIntroUaText(language));
+        appendTableHeaderCell(builder, StaticTextManager.getOrderNumText(language));
+        appendTableHeaderCell(builder, StaticTextManager.getOrderTypeText(language));
+        appendTableHeaderCell(builder, StaticTextManager.getUpdateDateText(language));
+        appendTableHeaderCell(builder, StaticTextManager.getAliasOfText(language));
+        appendTableHeaderCell(builder, StaticTextManager.getParentCodeText(language));
+        appendTableHeaderCell(builder, "");
+        appendTableHeaderCell(builder, "");
+        appendTableHeaderCell(builder, "");
+
+        builder.append("</thead>");
 
         return builder.toString();
     }
 
-    private String buildChildrenButton(String code, Language language) {
-        return String.format("<a href=\"%s/admin/pages?parentCode=%s\">" +
-                        "         <button class=\"btn btn-success\">⟱</button>" +
-                        "     </a>",
-                language == Language.UA ? "" : "/en",
-                code);
+    private static void appendTableHeaderCell(StringBuilder builder, String text) {
+        HtmlFragments.TABLE_HEADER_CELL.render(builder, text);
     }
 
-    private String buildShowButton(String code, Language language) {
-        return String.format("<a href=\"%s/admin/pages/%s\">" +
-                        "         <button class=\"btn btn-primary\">%s</button>" +
-                        "     </a>",
-                language == Language.UA ? "" : "/en",
-                code,
-                StaticTextManager.getShowButtonText(language));
+    private void appendIndexTableBody(StringBuilder builder, AdminPageSliceDto slice, Language language) {
+        builder.append("<tbody>");
+        for (AdminPageRowDto row : slice.getRows()) {
+            appendChildPageRow(builder, row, language);
+        }
+        builder.append("</tbody>");
     }
 
-    private String buildUpdateButton(String code, Language language) {
-        return String.format("<a href=\"%s/admin/pages/%s/edit\">" +
-                        "         <button class=\"btn btn-warning\">%s</button>" +
-                        "     </a>",
-                language == Language.UA ? "" : "/en",
-                code,
-                StaticTextManager.getUpdateButtonText(language));
-    }
+    private void appendChildPageRow(StringBuilder builder, AdminPageRowDto page, Language language) {
+        HtmlFragment row = page.getChildCount() == 0
+                ? HtmlFragments.ROW_WITHOUT_CHILDREN
+                : HtmlFragments.ROW_WITH_CHILDREN;
 
-    private String buildDeleteButton(String code, Language language) {
-        return String.format("<form action=\"%s/admin/pages/%s\" method=\"post\">" +
-                        "         <input name=\"_method\" type=\"hidden\" value=\"delete\" />" +
-                        "         <button class=\"btn btn-danger\">%s</button>" +
-                        "     </form>",
+        row.render(builder,
                 language == Language.UA ? "" : "/en",
-                code,
+                page.getCode(),
+                page.getId().toString(),
+                ellipsize(emptyIfNull(page.getCaptionEn()), 9),
+                ellipsize(page.getCaptionUa(), 9),
+                emptyIfNull(page.getContainerType()),
+                page.isContentEnPresent() ? "+" : "",
+                page.isContentUaPresent() ? "+" : "",
+                page.getCreationDate().toString(),
+                ellipsize(page.getImageUrl(), 9),
+                ellipsize(page.getIntroEn(), 9),
+                ellipsize(page.getIntroUa(), 9),
+                emptyIfNull(page.getOrderNum()),
+                emptyIfNull(page.getOrderType()),
+                page.getUpdateDate().toString(),
+                emptyIfNull(page.getAliasOfCode()),
+                emptyIfNull(page.getParentCode()),
+                StaticTextManager.getShowButtonText(language),
+                StaticTextManager.getUpdateButtonText(language),
                 StaticTextManager.getDeleteButtonText(language));
     }
 
-    private String buildTableCell(String text) {
-        return String.format("<td class=\"text-center\"><span>%s</span></td>", text);
-    }
-
-    private String buildTableHeaderCell(String text) {
-        return String.format("<th class=\"text-center\">%s</th>", text);
-    }
-
     @Override
     public AdminPanelPageDto getCreatePage(Language language) {
         String header = buildHeader(language);
@@ -492,13 +978,36 @@ public class PageServiceImpl implements PageService {
         return pageRepository.findByCode(pageCode).orElse(new Page());
     }
 
-    private String emptyIfNull(Object object) {
+    /*
+     * page with its bodies, for edit form only
+     */
+    @Override
+    public Page findPageWithContent(String pageCode) {
+        Page page = findPageByCode(pageCode);
+        if (page.getId() != null) {
+            pageContentRepository.findById(page.getId()).ifPresent(content -> {
+                page.setContentUa(content.getContentUa());
+                page.setContentEn(content.getContentEn());
+            });
+        }
+        return page;
+    }
+
+    private static Map<Language, String> perLanguage(Function<Language, String> builder) {
+        Map<Language, String> values = new EnumMap<>(Language.class);
+        for (Language language : Language.values()) {
+            values.put(language, builder.apply(language));
+        }
+        return Collections.unmodifiableMap(values);
+    }
+
+    private static String emptyIfNull(Object object) {
         return object != null
                 ? object.toString()
                 : "";
     }
 
-    private String ellipsize(String text, int maxWidth) {
+    private static String ellipsize(String text, int maxWidth) {
         if (text.length() <= maxWidth) {
             return text;
         }
@@ -0,0 +1,229 @@
+package ua.kpi.fict.cms.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ua.kpi.fict.cms.repository.PageRepository;
+import ua.kpi.fict.cms.service.PageTreeService;
+import ua.kpi.fict.cms.tree.PageNode;
+import ua.kpi.fict.cms.tree.PageTree;
+import ua.kpi.fict.cms.tree.PageTreeFile;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+@Log4j2
+/*
+ * snapshot is built after paths and sort keys of stored pages are migrated
+ */
+@DependsOn({"pagePathMigration", "pageSortKeyMigration"})
+@Service
+public class PageTreeServiceImpl implements PageTreeService {
+
+    /*
+     * bound of in list in one statement
+     */
+    private static final int IN_LIST_SIZE = 1000;
+
+    private final PageRepository pageRepository;
+    /*
+     * readers take current snapshot without locking, writers swap in patched copy
+     */
+    private final AtomicReference<PageTree> tree = new AtomicReference<>(PageTree.empty());
+
+    @Value("${cms.tree-snapshot.file}")
+    private String snapshotFile;
+    /*
+     * pages changed up to this long before the newest page of file are read again, clocks of nodes may differ
+     */
+    @Value("${cms.tree-snapshot.reconcile-margin-millis}")
+    private long reconcileMargin;
+    /*
+     * snapshot last written to file, nothing is written while it stays current
+     */
+    private volatile PageTree writtenTree;
+
+    private final Object fileLock = new Object();
+    /*
+     * patches applied while rebuild reads the database, replayed over the new snapshot before it is
+     * taken in use, guarded by this
+     */
+    private List<UnaryOperator<PageTree>> pendingPatches;
+
+    @Override
+    public PageTree getTree() {
+        return tree.get();
+    }
+
+    /*
+     * snapshot file of previous run is taken as it is and only pages changed since then are read from database,
+     * full read is left for the first start and for unreadable file
+     */
+    @PostConstruct
+    @Override
+    public void load() {
+        long start = System.currentTimeMillis();
+        PageTreeFile file;
+        try {
+            file = PageTreeFile.read(Paths.get(snapshotFile));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Page tree snapshot file {} is not readable", snapshotFile, e);
+            file = null;
+        }
+        if (file == null) {
+            rebuild();
+            return;
+        }
+        tree.set(PageTree.of(file.getNodes()));
+        reconcile(file.getLastModified() - reconcileMargin);
+        log.info("Page tree snapshot loaded from file with {} pages in {} ms",
+                file.getNodes().size(), System.currentTimeMillis() - start);
+    }
+
+    /*
+     * pages stored without modification time moving forward, e.g. inserted past the service,
+     * are missing from file and read by code
+     */
+    private void reconcile(long since) {
+        List<PageNode> changedNodes = new ArrayList<>(
+                pageRepository.findNodesModifiedSince(new Timestamp(since), new Date(since)));
+        Set<String> snapshotCodes = tree.get().getPages().stream()
+                .map(node -> node.getCode())
+                .collect(Collectors.toSet());
+        Set<String> storedCodes = new HashSet<>(pageRepository.findAllCodes());
+        Set<String> removedCodes = new HashSet<>(snapshotCodes);
+        removedCodes.removeAll(storedCodes);
+        Set<String> missingCodes = new HashSet<>(storedCodes);
+        missingCodes.removeAll(snapshotCodes);
+        changedNodes.forEach(node -> missingCodes.remove(node.getCode()));
+        List<String> codes = new ArrayList<>(missingCodes);
+        for (int from = 0; from < codes.size(); from += IN_LIST_SIZE) {
+            List<String> partition = codes.subList(from, Math.min(from + IN_LIST_SIZE, codes.size()));
+            changedNodes.addAll(pageRepository.findNodesByCodes(partition));
+        }
+        if (!changedNodes.isEmpty() || !removedCodes.isEmpty()) {
+            tree.updateAndGet(current -> current.withPages(changedNodes).withoutPages(removedCodes));
+        } else {
+            writtenTree = tree.get();
+        }
+        log.info("Page tree snapshot reconciled, {} pages read, {} of them missing from file, {} removed",
+                changedNodes.size(), missingCodes.size(), removedCodes.size());
+    }
+
+    /*
+     * snapshot keeps counting versions from the current one, so validators built from it never repeat
+     */
+    @Override
+    public void rebuild() {
+        synchronized (this) {
+            if (pendingPatches != null) {
+                log.info("Page tree snapshot rebuild is already running");
+                return;
+            }
+            pendingPatches = new ArrayList<>();
+        }
+        List<PageNode> nodes;
+        try {
+            nodes = pageRepository.findAllNodes();
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendingPatches = null;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            PageTree rebuilt = PageTree.of(nodes);
+            for (UnaryOperator<PageTree> patch : pendingPatches) {
+                rebuilt = patch.apply(rebuilt);
+            }
+            pendingPatches = null;
+            tree.set(rebuilt.withVersion(tree.get().getVersion() + 1));
+        }
+        log.info("Page tree snapshot built with {} pages", nodes.size());
+    }
+
+    /*
+     * file is replaced as a whole, failure to write it only costs full read on the next start
+     */
+    @Scheduled(fixedDelayString = "${cms.tree-snapshot.write-interval-millis}",
+            initialDelayString = "${cms.tree-snapshot.write-interval-millis}")
+    @PreDestroy
+    @Override
+    public void writeSnapshot() {
+        synchronized (fileLock) {
+            PageTree current = tree.get();
+            if (current == writtenTree || current.size() == 0) {
+                return;
+            }
+            long start = System.currentTimeMillis();
+            Path file = Paths.get(snapshotFile);
+            try {
+                PageTreeFile.write(file, current.getPages());
+                writtenTree = current;
+                log.info("Page tree snapshot with {} pages written to {} in {} ms",
+                        current.size(), file, System.currentTimeMillis() - start);
+            } catch (IOException e) {
+                log.warn("Page tree snapshot is not written to {}", file, e);
+            }
+        }
+    }
+
+    @Override
+    public void putPage(PageNode node) {
+        patch(current -> current.withPage(node));
+        log.debug("Page tree snapshot patched with page : {}", node.getCode());
+    }
+
+    /*
+     * whole moved subtree is swapped in at once, so readers never see it half moved
+     */
+    @Override
+    public void putPages(Collection<PageNode> nodes) {
+        patch(current -> current.withPages(nodes));
+        log.debug("Page tree snapshot patched with {} pages", nodes.size());
+    }
+
+    /*
+     * update is applied to nodes of the current snapshot, so fields changed meanwhile by other writers are kept
+     */
+    @Override
+    public void updatePages(Set<String> codes, UnaryOperator<PageNode> update) {
+        patch(current -> current.withPages(codes.stream()
+                .map(current::getPage)
+                .filter(Objects::nonNull)
+                .map(update)
+                .collect(Collectors.toList())));
+        log.debug("Page tree snapshot updated for {} pages", codes.size());
+    }
+
+    @Override
+    public void removePages(Set<String> codes) {
+        patch(current -> current.withoutPages(codes));
+        log.debug("Pages removed from page tree snapshot : {}", codes);
+    }
+
+    private synchronized void patch(UnaryOperator<PageTree> patch) {
+        tree.updateAndGet(patch);
+        if (pendingPatches != null) {
+            pendingPatches.add(patch);
+        }
+    }
+}
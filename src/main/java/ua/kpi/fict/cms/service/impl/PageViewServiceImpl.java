@@ -0,0 +1,216 @@
+package ua.kpi.fict.cms.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.kpi.fict.cms.cache.PageRenderCache;
+import ua.kpi.fict.cms.dto.response.PageViewDto;
+import ua.kpi.fict.cms.entity.enums.Language;
+import ua.kpi.fict.cms.entity.enums.OrderType;
+import ua.kpi.fict.cms.repository.PageRepository;
+import ua.kpi.fict.cms.repository.PageViewRepository;
+import ua.kpi.fict.cms.service.PageTreeService;
+import ua.kpi.fict.cms.service.PageViewService;
+import ua.kpi.fict.cms.tree.PageNode;
+import ua.kpi.fict.cms.tree.PageTree;
+
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+@Log4j2
+@Service
+public class PageViewServiceImpl implements PageViewService {
+
+    private static final int DEFAULT_POPULAR_PAGES = 20;
+
+    private static final int MAX_POPULAR_PAGES = 500;
+
+    private final PageViewRepository pageViewRepository;
+
+    private final PageRepository pageRepository;
+
+    private final PageTreeService pageTreeService;
+
+    private final PageRenderCache renderCache;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${cms.views.popularity-days}")
+    private int popularityDays;
+    /*
+     * language -> page code -> views since last flush, request threads only increment striped adders
+     */
+    private final Map<Language, ConcurrentMap<String, LongAdder>> counters = createCounters();
+
+    @Override
+    public void recordView(String pageCode, Language language) {
+        ConcurrentMap<String, LongAdder> languageCounters = counters.get(language);
+        LongAdder counter = languageCounters.get(pageCode);
+        if (counter == null) {
+            counter = languageCounters.computeIfAbsent(pageCode, code -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    /*
+     * views counted since last flush are added to views of the day, counts which could not be written
+     * are given back to counters for next attempt
+     */
+    @Scheduled(fixedDelayString = "${cms.views.flush-interval-millis}")
+    @PreDestroy
+    @Override
+    public synchronized void flush() {
+        PageTree tree = pageTreeService.getTree();
+        LocalDate today = LocalDate.now();
+        long flushed = 0;
+        for (Language language : Language.values()) {
+            ConcurrentMap<String, LongAdder> languageCounters = counters.get(language);
+            Map<String, Long> takenViews = new HashMap<>();
+            Map<Long, Long> views = new HashMap<>();
+            for (Map.Entry<String, LongAdder> counter : languageCounters.entrySet()) {
+                PageNode node = tree.getPage(counter.getKey());
+                if (node == null) {
+                    languageCounters.remove(counter.getKey());
+                    continue;
+                }
+                long pageViews = counter.getValue().sumThenReset();
+                if (pageViews > 0) {
+                    takenViews.put(counter.getKey(), pageViews);
+                    views.put(node.getId(), pageViews);
+                }
+            }
+            if (views.isEmpty()) {
+                continue;
+            }
+            try {
+                pageViewRepository.addViews(today, language, views);
+            } catch (RuntimeException e) {
+                takenViews.forEach((code, pageViews) ->
+                        languageCounters.computeIfAbsent(code, key -> new LongAdder()).add(pageViews));
+                log.warn("Page views were not flushed, they are kept for next attempt", e);
+                return;
+            }
+            flushed += takenViews.values().stream().mapToLong(Long::longValue).sum();
+        }
+        if (flushed > 0) {
+            log.debug("Flushed {} page views", flushed);
+            refreshPopularity();
+        }
+    }
+
+    /*
+     * popularity of pages is taken from views of recent days, children of popularity containers get new
+     * sort keys, and containers whose order changed are marked modified, so their validators change too
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Override
+    public synchronized void refreshPopularity() {
+        Map<Long, Long> views = new HashMap<>();
+        for (Object[] row : pageViewRepository.findViewsSince(LocalDate.now().minusDays(popularityDays - 1))) {
+            views.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+        PageTree tree = pageTreeService.getTree();
+        Map<Long, Long> popularity = new HashMap<>();
+        Map<Long, Long> sortKeys = new HashMap<>();
+        List<PageNode> changedNodes = new ArrayList<>();
+        Set<String> popularityParentCodes = new HashSet<>();
+        for (PageNode node : tree.getPages()) {
+            long pageViews = views.getOrDefault(node.getId(), 0L);
+            if (pageViews == popularityOf(node)) {
+                continue;
+            }
+            PageNode changedNode = node.toBuilder().popularity(pageViews).build();
+            changedNodes.add(changedNode);
+            popularity.put(node.getId(), pageViews);
+            PageNode parent = tree.getPage(node.getParentCode());
+            if (parent != null && parent.getOrderType() == OrderType.POPULARITY) {
+                sortKeys.put(node.getId(), OrderType.POPULARITY.getSortKey(changedNode));
+                popularityParentCodes.add(parent.getCode());
+            }
+        }
+        if (popularity.isEmpty()) {
+            return;
+        }
+        Set<String> reorderedCodes = findReordered(tree, tree.withPages(changedNodes), popularityParentCodes);
+        Timestamp lastModified = new Timestamp(System.currentTimeMillis());
+        transactionTemplate.executeWithoutResult(status -> {
+            pageRepository.updatePopularity(popularity);
+            if (!sortKeys.isEmpty()) {
+                pageRepository.updateSortKeys(sortKeys);
+            }
+            if (!reorderedCodes.isEmpty()) {
+                pageRepository.updateLastModified(reorderedCodes, lastModified);
+            }
+        });
+
+        Set<String> updatedCodes = changedNodes.stream().map(PageNode::getCode).collect(Collectors.toSet());
+        updatedCodes.addAll(reorderedCodes);
+        pageTreeService.updatePages(updatedCodes, node -> node.toBuilder()
+                .popularity(popularity.getOrDefault(node.getId(), node.getPopularity()))
+                .lastModified(reorderedCodes.contains(node.getCode()) ? lastModified : node.getLastModified())
+                .build());
+        renderCache.evict(reorderedCodes);
+        log.info("Popularity of {} pages refreshed, {} containers reordered", popularity.size(), reorderedCodes.size());
+    }
+
+    private static Set<String> findReordered(PageTree tree, PageTree refreshedTree, Set<String> parentCodes) {
+        Set<String> reorderedCodes = new HashSet<>();
+        for (String parentCode : parentCodes) {
+            if (!tree.getChildren(parentCode).stream().map(PageNode::getCode).collect(Collectors.toList())
+                    .equals(refreshedTree.getChildren(parentCode).stream().map(PageNode::getCode).collect(Collectors.toList()))) {
+                reorderedCodes.add(parentCode);
+            }
+        }
+        return reorderedCodes;
+    }
+
+    @Override
+    public List<PageViewDto> findPopularPages(Integer limit) {
+        int size = limit != null && limit > 0 ? Math.min(limit, MAX_POPULAR_PAGES) : DEFAULT_POPULAR_PAGES;
+        return pageTreeService.getTree().getPages().stream()
+                .filter(node -> popularityOf(node) > 0)
+                .sorted(Comparator.comparingLong((PageNode node) -> popularityOf(node)).reversed()
+                        .thenComparing(node -> node.getCode()))
+                .limit(size)
+                .map(node -> PageViewDto.builder()
+                        .code(node.getCode())
+                        .parentCode(node.getParentCode())
+                        .captionUa(node.getCaptionUa())
+                        .captionEn(node.getCaptionEn())
+                        .views(popularityOf(node))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private static long popularityOf(PageNode node) {
+        return node.getPopularity() != null ? node.getPopularity() : 0;
+    }
+
+    private static Map<Language, ConcurrentMap<String, LongAdder>> createCounters() {
+        Map<Language, ConcurrentMap<String, LongAdder>> counters = new EnumMap<>(Language.class);
+        for (Language language : Language.values()) {
+            counters.put(language, new ConcurrentHashMap<>());
+        }
+        return Collections.unmodifiableMap(counters);
+    }
+}
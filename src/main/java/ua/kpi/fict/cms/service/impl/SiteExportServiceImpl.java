@@ -0,0 +1,295 @@
+package ua.kpi.fict.cms.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ua.kpi.fict.cms.dto.response.SiteExportDto;
+import ua.kpi.fict.cms.entity.enums.Language;
+import ua.kpi.fict.cms.html.HtmlFragments;
+import ua.kpi.fict.cms.service.PageService;
+import ua.kpi.fict.cms.service.PageTreeService;
+import ua.kpi.fict.cms.service.SiteExportService;
+import ua.kpi.fict.cms.tree.PageNode;
+import ua.kpi.fict.cms.tree.PageTree;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * renders pages reachable from root into static files laid out like public urls :
+ * /code -> code/index.html, /en/code -> en/code/index.html, root page -> index.html and en/index.html
+ */
+@RequiredArgsConstructor
+@Log4j2
+@Service
+public class SiteExportServiceImpl implements SiteExportService {
+
+    private static final String ROOT_CODE = "root";
+
+    private static final String EN_DIRECTORY = "en";
+
+    private static final String INDEX_FILE = "index.html";
+    /*
+     * page code -> fingerprint of exported files, unchanged pages are skipped on next export
+     */
+    private static final String MANIFEST_FILE = ".export-manifest";
+
+    private final PageService pageService;
+
+    private final PageTreeService pageTreeService;
+
+    @Value("${cms.export.directory}")
+    private String directory;
+
+    @Value("${cms.export.parallelism}")
+    private int parallelism;
+
+    /*
+     * one export at a time, they would write the same files
+     */
+    @Override
+    public synchronized SiteExportDto export(boolean force) {
+        long start = System.currentTimeMillis();
+        Path exportDirectory = Path.of(directory).toAbsolutePath().normalize();
+        Export export = new Export(pageTreeService.getTree(), exportDirectory,
+                force ? new Properties() : readManifest(exportDirectory));
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(export.new PageExportTask(ROOT_CODE));
+        } finally {
+            pool.shutdown();
+        }
+        int removed = export.removeStalePages();
+        writeManifest(exportDirectory, export.fingerprints);
+
+        SiteExportDto result = SiteExportDto.builder()
+                .directory(exportDirectory.toString())
+                .rendered(export.rendered.get())
+                .redirects(export.redirects.get())
+                .unchanged(export.unchanged.get())
+                .removed(removed)
+                .failed(export.failed.size())
+                .durationMillis(System.currentTimeMillis() - start)
+                .build();
+        log.info("Site exported to {} : {} rendered, {} redirects, {} unchanged, {} removed, {} failed in {} ms",
+                result.getDirectory(), result.getRendered(), result.getRedirects(), result.getUnchanged(),
+                result.getRemoved(), result.getFailed(), result.getDurationMillis());
+        return result;
+    }
+
+    private Properties readManifest(Path exportDirectory) {
+        Properties manifest = new Properties();
+        Path manifestFile = exportDirectory.resolve(MANIFEST_FILE);
+        if (Files.exists(manifestFile)) {
+            try (Reader reader = Files.newBufferedReader(manifestFile, StandardCharsets.UTF_8)) {
+                manifest.load(reader);
+            } catch (IOException e) {
+                log.warn("Export manifest {} is not readable, exporting all pages", manifestFile, e);
+                manifest.clear();
+            }
+        }
+        return manifest;
+    }
+
+    private void writeManifest(Path exportDirectory, Map<String, String> fingerprints) {
+        Properties manifest = new Properties();
+        manifest.putAll(fingerprints);
+        try {
+            writeFile(exportDirectory.resolve(MANIFEST_FILE), writer -> manifest.store(writer, null));
+        } catch (IOException e) {
+            log.error("Export manifest was not written, next export will render all pages", e);
+        }
+    }
+
+    /*
+     * written to temporary file and moved in place, so static server never serves half written page
+     */
+    private static void writeFile(Path file, FileContent content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temporaryFile = Files.createTempFile(file.getParent(), ".export", ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(temporaryFile, StandardCharsets.UTF_8)) {
+                content.write(writer);
+            }
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    private static Path getPageFile(Path exportDirectory, String code, Language language) {
+        Path languageDirectory = language == Language.UA
+                ? exportDirectory
+                : exportDirectory.resolve(EN_DIRECTORY);
+        return ROOT_CODE.equals(code)
+                ? languageDirectory.resolve(INDEX_FILE)
+                : languageDirectory.resolve(code).resolve(INDEX_FILE);
+    }
+
+    private static String getPageLink(String code, Language language) {
+        if (ROOT_CODE.equals(code)) {
+            return language == Language.UA ? "/" : "/en";
+        }
+        return language == Language.UA
+                ? "/" + code
+                : "/en/" + code;
+    }
+
+    /*
+     * code has to stay one directory inside export directory, "en" is taken by english pages
+     */
+    private static boolean isExportable(String code) {
+        return !code.isEmpty()
+                && !code.equals(".")
+                && !code.equals("..")
+                && !code.equals(EN_DIRECTORY)
+                && code.indexOf('/') < 0
+                && code.indexOf('\\') < 0;
+    }
+
+    private interface FileContent {
+
+        void write(Writer writer) throws IOException;
+    }
+
+    /*
+     * state of one export run, shared by its tasks
+     */
+    private class Export {
+
+        private final PageTree tree;
+
+        private final Path exportDirectory;
+
+        private final Properties previousFingerprints;
+
+        private final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+
+        private final AtomicInteger rendered = new AtomicInteger();
+
+        private final AtomicInteger redirects = new AtomicInteger();
+
+        private final AtomicInteger unchanged = new AtomicInteger();
+        /*
+         * codes which failed to export keep their previous files, but not fingerprint, so they are retried
+         */
+        private final Set<String> failed = ConcurrentHashMap.newKeySet();
+
+        private Export(PageTree tree, Path exportDirectory, Properties previousFingerprints) {
+            this.tree = tree;
+            this.exportDirectory = exportDirectory;
+            this.previousFingerprints = previousFingerprints;
+        }
+
+        private void exportPage(String code) {
+            if (!isExportable(code)) {
+                log.warn("Page {} is skipped, its code can not be used as directory name", code);
+                return;
+            }
+            String targetCode = tree.resolve(code);
+            if (targetCode == null) {
+                log.warn("Alias {} is skipped, it does not lead to any page", code);
+                return;
+            }
+            boolean alias = !targetCode.equals(code);
+            String fingerprint = alias
+                    ? "alias:" + targetCode
+                    : Long.toHexString(tree.getLastModified(code)) + "-" + tree.getChildren(code).size();
+
+            if (fingerprint.equals(previousFingerprints.getProperty(code))
+                    && Files.exists(getPageFile(exportDirectory, code, Language.UA))
+                    && Files.exists(getPageFile(exportDirectory, code, Language.EN))) {
+                fingerprints.put(code, fingerprint);
+                unchanged.incrementAndGet();
+                return;
+            }
+            try {
+                for (Language language : Language.values()) {
+                    Path file = getPageFile(exportDirectory, code, language);
+                    if (alias) {
+                        writeFile(file, writer -> HtmlFragments.REDIRECT_STUB.write(writer, getPageLink(targetCode, language)));
+                    } else {
+                        writeFile(file, writer -> pageService.render(language, code, writer));
+                    }
+                }
+                fingerprints.put(code, fingerprint);
+                (alias ? redirects : rendered).incrementAndGet();
+            } catch (IOException | RuntimeException e) {
+                failed.add(code);
+                log.error("Page {} was not exported, it will be retried on next export", code, e);
+            }
+        }
+
+        /*
+         * files of pages which were exported before, but were not reached this time
+         */
+        private int removeStalePages() {
+            int removed = 0;
+            for (String code : previousFingerprints.stringPropertyNames()) {
+                if (fingerprints.containsKey(code) || failed.contains(code) || !isExportable(code)) {
+                    continue;
+                }
+                try {
+                    for (Language language : Language.values()) {
+                        Path file = getPageFile(exportDirectory, code, language);
+                        Files.deleteIfExists(file);
+                        if (!ROOT_CODE.equals(code)) {
+                            deleteIfEmpty(file.getParent());
+                        }
+                    }
+                    removed++;
+                } catch (IOException e) {
+                    log.error("Files of removed page {} were not deleted", code, e);
+                }
+            }
+            return removed;
+        }
+
+        /*
+         * directory of removed page may still hold directories of pages nested by url
+         */
+        private void deleteIfEmpty(Path pageDirectory) throws IOException {
+            try {
+                Files.deleteIfExists(pageDirectory);
+            } catch (DirectoryNotEmptyException e) {
+                log.debug("Directory {} of removed page is kept, it is not empty", pageDirectory);
+            }
+        }
+
+        private class PageExportTask extends RecursiveAction {
+
+            private final String code;
+
+            private PageExportTask(String code) {
+                this.code = code;
+            }
+
+            @Override
+            protected void compute() {
+                exportPage(code);
+                List<PageExportTask> subtasks = new ArrayList<>();
+                for (PageNode child : tree.getChildren(code)) {
+                    subtasks.add(new PageExportTask(child.getCode()));
+                }
+                invokeAll(subtasks);
+            }
+        }
+    }
+}
@@ -148,6 +148,36 @@ public class StaticTextManager {
                 : "+ Create";
     }
 
+    public static String getPreviousPageText(Language language) {
+        return language == Language.UA
+                ? "← Попередні"
+                : "← Previous";
+    }
+
+    public static String getNextPageText(Language language) {
+        return language == Language.UA
+                ? "Наступні →"
+                : "Next →";
+    }
+
+    public static String getSearchText(Language language) {
+        return language == Language.UA
+                ? "Пошук"
+                : "Search";
+    }
+
+    public static String getSearchPlaceholderText(Language language) {
+        return language == Language.UA
+                ? "Що шукаємо?"
+                : "What are you looking for?";
+    }
+
+    public static String getSearchResultsTemplate(Language language) {
+        return language == Language.UA
+                ? "Знайдено сторінок : %d"
+                : "Pages found : %d";
+    }
+
     public static String getHeaderText(Language language) {
         return language == Language.UA
                 ? "Лаб 3 - Адмін-панель CMS - Розробка інтелектуальних Web-систем"
@@ -0,0 +1,104 @@
+package ua.kpi.fict.cms.tree;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+import ua.kpi.fict.cms.entity.Page;
+import ua.kpi.fict.cms.entity.Sortable;
+import ua.kpi.fict.cms.entity.enums.ContainerType;
+import ua.kpi.fict.cms.entity.enums.Language;
+import ua.kpi.fict.cms.entity.enums.OrderType;
+
+import java.util.Date;
+
+/*
+ * immutable copy of page fields without content, kept in page tree snapshot
+ */
+@Value
+@Builder(toBuilder = true)
+@AllArgsConstructor
+public class PageNode implements Sortable {
+
+    Long id;
+
+    String code;
+
+    String parentCode;
+
+    String aliasOfCode;
+
+    String captionUa;
+
+    String captionEn;
+
+    String introUa;
+
+    String introEn;
+
+    String imageUrl;
+
+    Integer orderNum;
+
+    OrderType orderType;
+
+    ContainerType containerType;
+
+    Date creationDate;
+
+    Date updateDate;
+
+    Date lastModified;
+
+    String path;
+
+    Long popularity;
+
+    public static PageNode of(Page page) {
+        return PageNode.builder()
+                .id(page.getId())
+                .code(page.getCode())
+                .parentCode(page.getParentPage() != null ? page.getParentPage().getCode() : null)
+                .aliasOfCode(page.getAliasOf() != null ? page.getAliasOf().getCode() : null)
+                .captionUa(page.getCaptionUa())
+                .captionEn(page.getCaptionEn())
+                .introUa(page.getIntroUa())
+                .introEn(page.getIntroEn())
+                .imageUrl(page.getImageUrl())
+                .orderNum(page.getOrderNum())
+                .orderType(page.getOrderType())
+                .containerType(page.getContainerType())
+                .creationDate(page.getCreationDate())
+                .updateDate(page.getUpdateDate())
+                .lastModified(page.getLastModified())
+                .path(page.getPath())
+                .popularity(page.getPopularity())
+                .build();
+    }
+
+    /*
+     * pages stored before exact modification time was kept fall back to update date
+     */
+    public long getLastModifiedTime() {
+        return lastModified != null
+                ? lastModified.getTime()
+                : updateDate.getTime();
+    }
+
+    public String getCode(Language language) {
+        return language == Language.UA
+                ? "" + code
+                : "/en/" + code;
+    }
+
+    public String getCaption(Language language) {
+        return language == Language.UA
+                ? captionUa
+                : captionEn;
+    }
+
+    public String getIntro(Language language) {
+        return language == Language.UA
+                ? introUa
+                : introEn;
+    }
+}
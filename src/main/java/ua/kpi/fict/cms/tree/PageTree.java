@@ -0,0 +1,393 @@
+package ua.kpi.fict.cms.tree;
+
+import ua.kpi.fict.cms.entity.enums.OrderType;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * immutable snapshot of pages tree, patching returns new snapshot and leaves current one untouched
+ */
+public final class PageTree {
+
+    private static final PageTree EMPTY = new PageTree(0, Map.of(), Map.of(), Map.of(), Map.of(), Map.of());
+
+    private static final String PATH_SEPARATOR = "/";
+
+    /*
+     * code -> page
+     */
+    private final Map<String, PageNode> nodes;
+    /*
+     * id -> page, ancestors are found by ids of materialized path
+     */
+    private final Map<Long, PageNode> nodesById;
+    /*
+     * parent code -> children, sorted by parent order type
+     */
+    private final Map<String, List<PageNode>> children;
+    /*
+     * target code -> codes of aliases pointing at it
+     */
+    private final Map<String, List<String>> aliases;
+    /*
+     * alias code -> final target code, whole alias chain is followed in advance,
+     * aliases in cycle or pointing at missing page are absent
+     */
+    private final Map<String, String> aliasTargets;
+    /*
+     * number of patches applied since snapshot was built
+     */
+    private final long version;
+    /*
+     * newest modification of any page, found on first use, -1 until then
+     */
+    private volatile long newestModification = -1;
+
+    private PageTree(long version,
+                     Map<String, PageNode> nodes,
+                     Map<Long, PageNode> nodesById,
+                     Map<String, List<PageNode>> children,
+                     Map<String, List<String>> aliases,
+                     Map<String, String> aliasTargets) {
+
+        this.version = version;
+        this.nodes = nodes;
+        this.nodesById = nodesById;
+        this.children = children;
+        this.aliases = aliases;
+        this.aliasTargets = aliasTargets;
+    }
+
+    public static PageTree empty() {
+        return EMPTY;
+    }
+
+    public static PageTree of(Collection<PageNode> pageNodes) {
+        Map<String, PageNode> nodes = new HashMap<>();
+        Map<Long, PageNode> nodesById = new HashMap<>();
+        for (PageNode node : pageNodes) {
+            nodes.put(node.getCode(), node);
+            nodesById.put(node.getId(), node);
+        }
+        Map<String, List<PageNode>> children = new HashMap<>();
+        Map<String, List<String>> aliases = new HashMap<>();
+        for (PageNode node : nodes.values()) {
+            if (node.getParentCode() != null) {
+                children.computeIfAbsent(node.getParentCode(), code -> new ArrayList<>()).add(node);
+            }
+            if (node.getAliasOfCode() != null) {
+                aliases.computeIfAbsent(node.getAliasOfCode(), code -> new ArrayList<>()).add(node.getCode());
+            }
+        }
+        children.replaceAll((parentCode, childNodes) -> sorted(nodes.get(parentCode), childNodes));
+        aliases.replaceAll((targetCode, aliasCodes) -> List.copyOf(aliasCodes));
+
+        Map<String, String> aliasTargets = new HashMap<>();
+        for (PageNode node : nodes.values()) {
+            if (node.getAliasOfCode() != null) {
+                putAliasTarget(nodes, aliasTargets, node.getCode());
+            }
+        }
+        return new PageTree(0, nodes, nodesById, children, aliases, aliasTargets);
+    }
+
+    public PageNode getPage(String code) {
+        return code != null ? nodes.get(code) : null;
+    }
+
+    public Collection<PageNode> getPages() {
+        return Collections.unmodifiableCollection(nodes.values());
+    }
+
+    public boolean contains(String code) {
+        return code != null && nodes.containsKey(code);
+    }
+
+    public List<PageNode> getChildren(String code) {
+        return children.getOrDefault(code, List.of());
+    }
+
+    /*
+     * pages from root down to the parent of given page, read by ids of its path,
+     * pages without path are walked up by parent codes
+     */
+    public List<PageNode> getAncestors(String code) {
+        PageNode node = getPage(code);
+        if (node == null) {
+            return List.of();
+        }
+        List<PageNode> ancestors = new ArrayList<>();
+        if (node.getPath() != null) {
+            String[] ids = node.getPath().split(PATH_SEPARATOR);
+            for (int i = 0; i < ids.length - 1; i++) {
+                PageNode ancestor = ids[i].isEmpty() ? null : nodesById.get(Long.valueOf(ids[i]));
+                if (ancestor != null) {
+                    ancestors.add(ancestor);
+                }
+            }
+            return ancestors;
+        }
+        Set<String> visited = new HashSet<>(List.of(code));
+        PageNode parent = getPage(node.getParentCode());
+        while (parent != null && visited.add(parent.getCode())) {
+            ancestors.add(parent);
+            parent = getPage(parent.getParentCode());
+        }
+        Collections.reverse(ancestors);
+        return ancestors;
+    }
+
+    public List<String> getAliases(String code) {
+        return aliases.getOrDefault(code, List.of());
+    }
+
+    public String getAliasTarget(String code) {
+        PageNode node = getPage(code);
+        return node != null ? node.getAliasOfCode() : null;
+    }
+
+    /*
+     * code of page which should be rendered for given code, null for unknown page
+     */
+    public String resolve(String code) {
+        if (!contains(code)) {
+            return null;
+        }
+        return aliasTargets.getOrDefault(code, code);
+    }
+
+    /*
+     * whether making page an alias of target would close alias chain into cycle
+     */
+    public boolean createsAliasCycle(String code, String aliasOfCode) {
+        Set<String> visited = new HashSet<>();
+        String current = aliasOfCode;
+        while (current != null && visited.add(current)) {
+            if (current.equals(code)) {
+                return true;
+            }
+            current = getAliasTarget(current);
+        }
+        return false;
+    }
+
+    /*
+     * newest modification among page and pages shown on it (ancestors in breadcrumbs, children in container),
+     * 0 for unknown page
+     */
+    public long getLastModified(String code) {
+        PageNode node = getPage(code);
+        if (node == null) {
+            return 0;
+        }
+        long lastModified = node.getLastModifiedTime();
+        for (PageNode ancestor : getAncestors(code)) {
+            lastModified = Math.max(lastModified, ancestor.getLastModifiedTime());
+        }
+        for (PageNode child : getChildren(code)) {
+            lastModified = Math.max(lastModified, child.getLastModifiedTime());
+        }
+        return lastModified;
+    }
+
+    /*
+     * removed pages move last modification of their parents, so it changes with every change of pages
+     */
+    public long getNewestModification() {
+        long newest = newestModification;
+        if (newest < 0) {
+            newest = nodes.values().stream().mapToLong(PageNode::getLastModifiedTime).max().orElse(0);
+            newestModification = newest;
+        }
+        return newest;
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public PageTree withPage(PageNode node) {
+        return withPages(List.of(node));
+    }
+
+    /*
+     * same pages under next version, so validators built from version never repeat after rebuild
+     */
+    public PageTree withVersion(long version) {
+        return new PageTree(version, nodes, nodesById, children, aliases, aliasTargets);
+    }
+
+    /*
+     * whole batch is applied to one copy of the indexes, children of every touched parent are sorted once,
+     * so large imports under one parent stay linear in siblings
+     */
+    public PageTree withPages(Collection<PageNode> pageNodes) {
+        Map<String, PageNode> newNodes = new HashMap<>(nodes);
+        Map<Long, PageNode> newNodesById = new HashMap<>(nodesById);
+        Map<String, List<PageNode>> newChildren = new HashMap<>(children);
+        Map<String, List<String>> newAliases = new HashMap<>(aliases);
+        Map<String, String> newAliasTargets = new HashMap<>(aliasTargets);
+        /*
+         * parent code -> codes of children leaving it and children joining it
+         */
+        Map<String, Set<String>> leaving = new HashMap<>();
+        Map<String, List<PageNode>> joining = new HashMap<>();
+
+        List<String> codes = new ArrayList<>(pageNodes.size());
+        for (PageNode node : pageNodes) {
+            PageNode previous = newNodes.put(node.getCode(), node);
+            if (previous != null) {
+                newNodesById.remove(previous.getId());
+                unlinkAlias(newAliases, previous);
+                if (previous.getParentCode() != null) {
+                    leaving.computeIfAbsent(previous.getParentCode(), code -> new HashSet<>()).add(previous.getCode());
+                }
+            }
+            newNodesById.put(node.getId(), node);
+            linkAlias(newAliases, node);
+            if (node.getParentCode() != null) {
+                joining.computeIfAbsent(node.getParentCode(), code -> new ArrayList<>()).add(node);
+            }
+            codes.add(node.getCode());
+        }
+        resolveAliasTargets(newNodes, newAliases, newAliasTargets, codes);
+
+        Set<String> parentCodes = new HashSet<>(codes);
+        parentCodes.addAll(leaving.keySet());
+        parentCodes.addAll(joining.keySet());
+        for (String parentCode : parentCodes) {
+            List<PageNode> siblings = new ArrayList<>(newChildren.getOrDefault(parentCode, List.of()));
+            Set<String> leavingCodes = leaving.getOrDefault(parentCode, Set.of());
+            siblings.removeIf(sibling -> leavingCodes.contains(sibling.getCode()));
+            siblings.addAll(joining.getOrDefault(parentCode, List.of()));
+            if (siblings.isEmpty()) {
+                newChildren.remove(parentCode);
+            } else {
+                newChildren.put(parentCode, sorted(newNodes.get(parentCode), siblings));
+            }
+        }
+        return new PageTree(version + 1, newNodes, newNodesById, newChildren, newAliases, newAliasTargets);
+    }
+
+    public PageTree withoutPages(Set<String> codes) {
+        Map<String, PageNode> newNodes = new HashMap<>(nodes);
+        Map<Long, PageNode> newNodesById = new HashMap<>(nodesById);
+        Map<String, List<PageNode>> newChildren = new HashMap<>(children);
+        Map<String, List<String>> newAliases = new HashMap<>(aliases);
+        Map<String, String> newAliasTargets = new HashMap<>(aliasTargets);
+
+        List<String> orphanedAliases = new ArrayList<>();
+        for (String code : codes) {
+            PageNode previous = newNodes.remove(code);
+            if (previous != null) {
+                newNodesById.remove(previous.getId());
+                unlink(newChildren, newAliases, previous);
+            }
+            newChildren.remove(code);
+            newAliasTargets.remove(code);
+            List<String> aliasCodes = newAliases.remove(code);
+            if (aliasCodes != null) {
+                orphanedAliases.addAll(aliasCodes);
+            }
+        }
+        orphanedAliases.removeAll(codes);
+        resolveAliasTargets(newNodes, newAliases, newAliasTargets, orphanedAliases);
+
+        return new PageTree(version + 1, newNodes, newNodesById, newChildren, newAliases, newAliasTargets);
+    }
+
+    /*
+     * re-resolves given pages and every alias which reaches them through alias chain
+     */
+    private static void resolveAliasTargets(Map<String, PageNode> nodes,
+                                            Map<String, List<String>> aliases,
+                                            Map<String, String> aliasTargets,
+                                            Collection<String> codes) {
+
+        Deque<String> pending = new ArrayDeque<>(codes);
+        Set<String> visited = new HashSet<>();
+        while (!pending.isEmpty()) {
+            String code = pending.pop();
+            if (visited.add(code)) {
+                aliasTargets.remove(code);
+                putAliasTarget(nodes, aliasTargets, code);
+                pending.addAll(aliases.getOrDefault(code, List.of()));
+            }
+        }
+    }
+
+    private static void putAliasTarget(Map<String, PageNode> nodes, Map<String, String> aliasTargets, String code) {
+        Set<String> visited = new HashSet<>();
+        String current = code;
+        PageNode node = nodes.get(current);
+        while (node != null && node.getAliasOfCode() != null) {
+            if (!visited.add(current)) {
+                return;
+            }
+            current = node.getAliasOfCode();
+            node = nodes.get(current);
+        }
+        if (node != null && !current.equals(code)) {
+            aliasTargets.put(code, current);
+        }
+    }
+
+    private static void linkAlias(Map<String, List<String>> aliases, PageNode node) {
+        if (node.getAliasOfCode() != null) {
+            List<String> aliasCodes = new ArrayList<>(aliases.getOrDefault(node.getAliasOfCode(), List.of()));
+            aliasCodes.add(node.getCode());
+            aliases.put(node.getAliasOfCode(), List.copyOf(aliasCodes));
+        }
+    }
+
+    private static void unlink(Map<String, List<PageNode>> children,
+                               Map<String, List<String>> aliases,
+                               PageNode node) {
+
+        if (node.getParentCode() != null) {
+            List<PageNode> siblings = new ArrayList<>(children.getOrDefault(node.getParentCode(), List.of()));
+            siblings.removeIf(sibling -> sibling.getCode().equals(node.getCode()));
+            putOrRemove(children, node.getParentCode(), siblings);
+        }
+        unlinkAlias(aliases, node);
+    }
+
+    private static void unlinkAlias(Map<String, List<String>> aliases, PageNode node) {
+        if (node.getAliasOfCode() != null) {
+            List<String> aliasCodes = new ArrayList<>(aliases.getOrDefault(node.getAliasOfCode(), List.of()));
+            aliasCodes.remove(node.getCode());
+            putOrRemove(aliases, node.getAliasOfCode(), aliasCodes);
+        }
+    }
+
+    private static <T> void putOrRemove(Map<String, List<T>> index, String key, List<T> values) {
+        if (values.isEmpty()) {
+            index.remove(key);
+        } else {
+            index.put(key, List.copyOf(values));
+        }
+    }
+
+    private static List<PageNode> sorted(PageNode parent, List<PageNode> childNodes) {
+        OrderType orderType = OrderType.of(parent != null ? parent.getOrderType() : null);
+        Comparator<PageNode> comparator = orderType.getComparator()::compare;
+
+        List<PageNode> sortedNodes = new ArrayList<>(childNodes);
+        sortedNodes.sort(comparator.thenComparing(PageNode::getId, Comparator.nullsLast(Comparator.naturalOrder())));
+        return Collections.unmodifiableList(sortedNodes);
+    }
+}
@@ -0,0 +1,166 @@
+package ua.kpi.fict.cms.tree;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ua.kpi.fict.cms.entity.enums.ContainerType;
+import ua.kpi.fict.cms.entity.enums.OrderType;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/*
+ * binary copy of page tree snapshot kept on local disk between restarts, header with modification time
+ * of the newest page is followed by fields of every page, absent values are written as -1 length or time
+ */
+@Getter
+@AllArgsConstructor
+public class PageTreeFile {
+
+    private static final int MAGIC = 0x434D5354;
+    /*
+     * files of other format version are ignored, so changing layout below needs the next version
+     */
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int ABSENT = -1;
+
+    private final long lastModified;
+
+    private final List<PageNode> nodes;
+
+    /*
+     * file is written next to its final place and moved over it, so readers never see it half written
+     */
+    public static void write(Path file, Collection<PageNode> nodes) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temporary = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(nodes.stream().mapToLong(PageNode::getLastModifiedTime).max().orElse(0));
+                out.writeInt(nodes.size());
+                for (PageNode node : nodes) {
+                    writeNode(out, node);
+                }
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /*
+     * file is mapped instead of read through stream, pages are decoded right from page cache,
+     * null is returned when there is no file of current format
+     */
+    public static PageTreeFile read(Path file) throws IOException {
+        if (!Files.isReadable(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 20 || buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                return null;
+            }
+            long lastModified = buffer.getLong();
+            int size = buffer.getInt();
+            List<PageNode> nodes = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                nodes.add(readNode(buffer));
+            }
+            return new PageTreeFile(lastModified, nodes);
+        }
+    }
+
+    private static void writeNode(DataOutputStream out, PageNode node) throws IOException {
+        out.writeLong(node.getId());
+        writeString(out, node.getCode());
+        writeString(out, node.getParentCode());
+        writeString(out, node.getAliasOfCode());
+        writeString(out, node.getCaptionUa());
+        writeString(out, node.getCaptionEn());
+        writeString(out, node.getIntroUa());
+        writeString(out, node.getIntroEn());
+        writeString(out, node.getImageUrl());
+        out.writeInt(node.getOrderNum() != null ? node.getOrderNum() : Integer.MIN_VALUE);
+        writeString(out, node.getOrderType() != null ? node.getOrderType().name() : null);
+        writeString(out, node.getContainerType() != null ? node.getContainerType().name() : null);
+        writeTime(out, node.getCreationDate());
+        writeTime(out, node.getUpdateDate());
+        writeTime(out, node.getLastModified());
+        writeString(out, node.getPath());
+        out.writeLong(node.getPopularity() != null ? node.getPopularity() : Long.MIN_VALUE);
+    }
+
+    /*
+     * dates are restored as the same jdbc types hibernate gives, so they are printed the same way
+     */
+    private static PageNode readNode(ByteBuffer buffer) {
+        long id = buffer.getLong();
+        String code = readString(buffer);
+        String parentCode = readString(buffer);
+        String aliasOfCode = readString(buffer);
+        String captionUa = readString(buffer);
+        String captionEn = readString(buffer);
+        String introUa = readString(buffer);
+        String introEn = readString(buffer);
+        String imageUrl = readString(buffer);
+        int orderNum = buffer.getInt();
+        String orderType = readString(buffer);
+        String containerType = readString(buffer);
+        long creationDate = buffer.getLong();
+        long updateDate = buffer.getLong();
+        long lastModified = buffer.getLong();
+        String path = readString(buffer);
+        long popularity = buffer.getLong();
+        return new PageNode(id, code, parentCode, aliasOfCode, captionUa, captionEn, introUa, introEn, imageUrl,
+                orderNum != Integer.MIN_VALUE ? orderNum : null,
+                orderType != null ? OrderType.valueOf(orderType) : null,
+                containerType != null ? ContainerType.valueOf(containerType) : null,
+                creationDate != ABSENT ? new Date(creationDate) : null,
+                updateDate != ABSENT ? new Date(updateDate) : null,
+                lastModified != ABSENT ? new Timestamp(lastModified) : null,
+                path,
+                popularity != Long.MIN_VALUE ? popularity : null);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(ABSENT);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == ABSENT) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeTime(DataOutputStream out, java.util.Date value) throws IOException {
+        out.writeLong(value != null ? value.getTime() : ABSENT);
+    }
+}
@@ -0,0 +1,147 @@
+package ua.kpi.fict.cms.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import ua.kpi.fict.cms.cache.PageRenderCache;
+import ua.kpi.fict.cms.entity.enums.Language;
+import ua.kpi.fict.cms.repository.PageContentRepository;
+import ua.kpi.fict.cms.repository.PageRepository;
+import ua.kpi.fict.cms.service.PageOrderService;
+import ua.kpi.fict.cms.service.PageSearchService;
+import ua.kpi.fict.cms.service.PageTreeService;
+import ua.kpi.fict.cms.tree.PageNode;
+import ua.kpi.fict.cms.tree.PageTree;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.sql.Date;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PageServiceImplTest {
+
+    @Mock
+    private PageRepository pageRepository;
+
+    @Mock
+    private PageContentRepository pageContentRepository;
+
+    @Mock
+    private PageRenderCache renderCache;
+
+    @Mock
+    private PageTreeService pageTreeService;
+
+    @Mock
+    private PageOrderService pageOrderService;
+
+    @Mock
+    private PageSearchService pageSearchService;
+
+    private PageServiceImpl pageService;
+
+    @BeforeEach
+    void setUp() {
+        pageService = new PageServiceImpl(pageRepository, pageContentRepository, renderCache,
+                pageTreeService, pageOrderService, pageSearchService);
+    }
+
+    @Test
+    void deleteSubtreeRefreshesParentsOfRemovedAliasesOutsideSubtree() {
+        when(pageTreeService.getTree()).thenReturn(PageTree.of(List.of(
+                node(1L, "root", null, null),
+                node(2L, "news", "root", null),
+                node(3L, "news-item", "news", null),
+                node(4L, "about", "root", null),
+                node(5L, "news-link", "about", "news"))));
+        Map<String, String> subtree = new LinkedHashMap<>();
+        subtree.put("news", null);
+        subtree.put("news-item", null);
+        subtree.put("news-link", "news");
+        when(pageRepository.findSubtree("news")).thenReturn(subtree);
+        when(pageRepository.deletePages(subtree.keySet())).thenReturn(subtree.size());
+
+        pageService.deleteSubtree("news", false);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<String>> evicted = ArgumentCaptor.forClass(Collection.class);
+        verify(renderCache).evict(evicted.capture());
+        assertThat(evicted.getValue()).contains("root", "about", "news", "news-item", "news-link");
+        verify(pageRepository).updateLastModified(eq(Set.of("root", "about")), any());
+    }
+
+    @ParameterizedTest
+    @NullSource
+    @ValueSource(strings = "/img/about.png")
+    void renderWritesSameImageMarkupAsBaseTemplate(String imageUrl) throws IOException {
+        PageNode page = node(2L, "about", "root", null).toBuilder()
+                .imageUrl(imageUrl)
+                .build();
+        when(pageTreeService.getTree()).thenReturn(PageTree.of(List.of(node(1L, "root", null, null), page)));
+        when(pageContentRepository.findContent(2L, Language.UA)).thenReturn(Optional.of(CONTENT));
+
+        StringWriter rendered = new StringWriter();
+        pageService.render(Language.UA, "about", rendered);
+
+        Context context = new Context();
+        context.setVariable("language", "ua");
+        context.setVariable("title", "about");
+        context.setVariable("imageUrl", imageUrl);
+        context.setVariable("content", CONTENT);
+        String template = createTemplateEngine().process("base_template", context);
+
+        assertThat(betweenTitleAndContent(rendered.toString())).isEqualTo(betweenTitleAndContent(template));
+    }
+
+    private static final String CONTENT = "<p>content</p>";
+
+    private static SpringTemplateEngine createTemplateEngine() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        return engine;
+    }
+
+    private static String betweenTitleAndContent(String html) {
+        return html.substring(html.indexOf("</h1>") + "</h1>".length(), html.indexOf(CONTENT)).strip();
+    }
+
+    private static PageNode node(Long id, String code, String parentCode, String aliasOfCode) {
+        Date date = new Date(0);
+        return PageNode.builder()
+                .id(id)
+                .code(code)
+                .parentCode(parentCode)
+                .aliasOfCode(aliasOfCode)
+                .captionUa(code)
+                .captionEn(code)
+                .creationDate(date)
+                .updateDate(date)
+                .build();
+    }
+}